@@ -6,20 +6,34 @@ import Navbar from '../layout/Navbar';
 
 import { Student } from '../types';
 
+// Students are listed a page at a time; the API returns the next page's cursor in X-Next-Cursor
+const PAGE_SIZE = 100;
+
 export default function Home() {
   const [students, setStudents] = useState<Student[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState<string | null>(null);
 
   useEffect(() => {
     loadStudents();
   }, []);
 
+  const fetchPage = async (cursor?: string) => {
+    const response = await axios.get<Student[]>('http://localhost:8080/api/students', {
+      params: { limit: PAGE_SIZE, cursor },
+      withCredentials: true,
+    });
+    const cursor = response.headers['x-next-cursor'];
+    setNextCursor(typeof cursor === 'string' ? cursor : null);
+    return response.data;
+  };
+
   const loadStudents = async () => {
     setLoading(true);
     try {
-      const { data } = await axios.get<Student[]>('http://localhost:8080/api/students', { withCredentials: true });
-      setStudents(data);
+      setStudents(await fetchPage());
       setError(null);
     } catch (err) {
       console.error('Unable to fetch students', err);
@@ -29,6 +43,20 @@ export default function Home() {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const page = await fetchPage(nextCursor);
+      setStudents((prev) => [...prev, ...page]);
+    } catch (err) {
+      console.error('Unable to fetch more students', err);
+      alert('Unable to load more students. Please try again.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDelete = async (studentId: number | undefined) => {
     if (!studentId) return;
     const confirmDelete = window.confirm('Are you sure you want to delete this student?');
@@ -101,7 +129,7 @@ export default function Home() {
                       <td className="photo-cell align-middle">
                         {student.photographPath ? (
                           <img
-                            src={`http://localhost:8080/api/students/${student.id}/photo`}
+                            src={`http://localhost:8080/api/students/${student.id}/photo?size=thumb&v=${student.photographVersion ?? ''}`}
                             alt={`Photograph of ${student.firstName ?? 'student'}`}
                             className="student-photo shadow-sm rounded-circle"
                             style={{ width: '40px', height: '40px', objectFit: 'cover' }}
@@ -134,6 +162,18 @@ export default function Home() {
                 </tbody>
               </table>
             </div>
+            {nextCursor && (
+              <div className="text-center py-3 border-top">
+                <button
+                  type="button"
+                  className="btn btn-sm btn-outline-secondary rounded-pill px-4"
+                  onClick={loadMore}
+                  disabled={loadingMore}
+                >
+                  {loadingMore ? 'Loading...' : 'Load more'}
+                </button>
+              </div>
+            )}
           </div>
         )}
       </div>
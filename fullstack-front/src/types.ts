@@ -17,5 +17,6 @@ export interface Student {
     placementId?: string | number | null;
     rollNumber?: string;
     photographPath?: string;
+    photographVersion?: string;
     domainProgram?: string;
 }
@@ -179,7 +179,7 @@ export default function EditUser() {
                 {id && (
                   <div className="mt-3">
                     <img
-                      src={`http://localhost:8080/api/students/${id}/photo`}
+                      src={`http://localhost:8080/api/students/${id}/photo?size=medium`}
                       alt="Current"
                       className="rounded-circle shadow-sm"
                       style={{ width: '100px', height: '100px', objectFit: 'cover' }}
@@ -49,7 +49,7 @@ export default function ViewUser() {
                   <div className="d-flex flex-column align-items-center mb-4">
                     {student.photographPath ? (
                       <img
-                        src={`http://localhost:8080/api/students/${student.id}/photo`}
+                        src={`http://localhost:8080/api/students/${student.id}/photo?size=medium&v=${student.photographVersion ?? ''}`}
                         alt={`Photograph of ${student.firstName}`}
                         className="rounded-circle shadow-lg mb-3"
                         style={{ width: '150px', height: '150px', objectFit: 'cover', border: '4px solid white' }}
@@ -0,0 +1,52 @@
+package com.harsh.fullstackbackend.controller;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Writing a student listing as JSON with the mapper configuration Spring MVC uses, into a sink
+ * so only serialization is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StudentListSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private List<StudentResponse> students;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        students = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            students.add(new StudentResponse((long) i, "MT25%03d".formatted(i % 1000), "First" + i, "Last" + i,
+                    "student%d@example.com".formatted(i), "ab/cd/" + Integer.toHexString(i), Integer.toHexString(i),
+                    6.0 + (i % 40) / 10.0, 80, 2025, null, null, 1L, "M.Tech CSE", "2025"));
+        }
+        writer = Jackson2ObjectMapperBuilder.json().build()
+                .writerFor(TypeFactory.defaultInstance().constructCollectionType(List.class, StudentResponse.class));
+    }
+
+    @Benchmark
+    public void writeList() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), students);
+    }
+}
@@ -0,0 +1,95 @@
+package com.harsh.fullstackbackend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Reading a create request off the wire: the "student" JSON part and a 256 KiB photograph,
+ * sent in either order. The photograph is drained as the photo store would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentPayloadBenchmark {
+
+    private static final String BOUNDARY = "----benchmark-boundary";
+    private static final String STUDENT_JSON = """
+            {"firstName":"Ada","lastName":"Lovelace","email":"ada@example.com","cgpa":9.1,
+             "totalCredits":80,"graduationYear":2025,"domainId":1,"specialisationId":null,"placementId":null}
+            """;
+
+    private StudentController controller;
+    private byte[] studentFirst;
+    private byte[] photographFirst;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        controller = new StudentController(null, null, null, objectMapper, null);
+        byte[] photograph = new byte[256 * 1024];
+        photograph[0] = (byte) 0xFF;
+        photograph[1] = (byte) 0xD8;
+        photograph[2] = (byte) 0xFF;
+        studentFirst = body(photograph, true);
+        photographFirst = body(photograph, false);
+    }
+
+    @Benchmark
+    public long studentPartFirst() throws IOException {
+        return read(studentFirst);
+    }
+
+    @Benchmark
+    public long photographPartFirst() throws IOException {
+        return read(photographFirst);
+    }
+
+    private long read(byte[] body) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/students");
+        request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        request.setContent(body);
+        try (StudentController.StudentPayload payload = controller.extractStudentPayload(request, true);
+                InputStream photograph = payload.photograph().getInputStream()) {
+            return photograph.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static byte[] body(byte[] photograph, boolean studentFirst) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (studentFirst) {
+            studentPart(body);
+            photographPart(body, photograph);
+        } else {
+            photographPart(body, photograph);
+            studentPart(body);
+        }
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+
+    private static void studentPart(ByteArrayOutputStream body) throws IOException {
+        body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"student\"\r\n\r\n" + STUDENT_JSON + "\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void photographPart(ByteArrayOutputStream body, byte[] photograph) throws IOException {
+        body.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"photograph\"; filename=\"photo.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.write(photograph);
+        body.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,43 @@
+package com.harsh.fullstackbackend.service;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The string helpers behind every allocated roll number.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RollNumberFormattingBenchmark {
+
+    private String qualification = "M.Tech";
+    private String batch = "2025-27";
+    private int sequence = 42;
+
+    @Benchmark
+    public String normalizePrefix() {
+        return RollNumberAllocator.normalizePrefix(qualification);
+    }
+
+    @Benchmark
+    public String extractBatchSuffix() {
+        return RollNumberAllocator.extractBatchSuffix(batch);
+    }
+
+    @Benchmark
+    public String formatSequence() {
+        return RollNumberAllocator.formatSequence(sequence);
+    }
+
+    @Benchmark
+    public String rollNumber() {
+        return RollNumberAllocator.normalizePrefix(qualification) + RollNumberAllocator.extractBatchSuffix(batch)
+                + RollNumberAllocator.formatSequence(sequence);
+    }
+}
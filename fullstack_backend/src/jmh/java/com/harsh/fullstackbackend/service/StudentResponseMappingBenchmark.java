@@ -0,0 +1,51 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Entity to response mapping, run on every create and update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StudentResponseMappingBenchmark {
+
+    private Student student;
+
+    @Setup
+    public void setUp() {
+        Domain domain = new Domain();
+        domain.setId(1L);
+        domain.setProgram("M.Tech CSE");
+        domain.setBatch("2025");
+        domain.setQualification("M.Tech");
+
+        student = new Student();
+        student.setId(7L);
+        student.setDomain(domain);
+        student.setRollNumber("MT25007");
+        student.setFirstName("Ada");
+        student.setLastName("Lovelace");
+        student.setEmail("ada@example.com");
+        student.setPhotographPath("ab/cd/abcd");
+        student.setPhotographSha256("abcd");
+        student.setCgpa(9.1);
+        student.setTotalCredits(80);
+        student.setGraduationYear(2025);
+    }
+
+    @Benchmark
+    public StudentResponse toResponse() {
+        return StudentService.toResponse(student);
+    }
+}
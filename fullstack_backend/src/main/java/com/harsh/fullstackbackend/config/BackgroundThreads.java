@@ -0,0 +1,38 @@
+package com.harsh.fullstackbackend.config;
+
+import java.util.concurrent.ThreadFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thread factories for the application's own background pools. With
+ * spring.threads.virtual.enabled=true they create virtual threads, matching what Spring Boot
+ * then uses for Tomcat request handling; otherwise named daemon platform threads.
+ */
+@Component
+public class BackgroundThreads {
+
+    private final boolean virtual;
+
+    @Autowired
+    public BackgroundThreads(Environment environment) {
+        this(Threading.VIRTUAL.isActive(environment));
+    }
+
+    public BackgroundThreads(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory factory(String name) {
+        if (virtual) {
+            return Thread.ofVirtual().name(name + "-", 1).factory();
+        }
+        return Thread.ofPlatform().name(name + "-", 1).daemon(true).factory();
+    }
+}
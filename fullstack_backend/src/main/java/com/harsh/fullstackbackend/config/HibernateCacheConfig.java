@@ -0,0 +1,72 @@
+package com.harsh.fullstackbackend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate second-level cache on Caffeine through JCache. Every region is declared here with a
+ * size bound; Hibernate is told to fail rather than create an unbounded region for anything
+ * else. Statistics are on so per-region hits and misses reach /actuator/metrics
+ * (hibernate.second.level.cache.requests, tagged by region).
+ *
+ * <p>The regions live in each node's heap and nothing invalidates them across nodes: a write on
+ * one node leaves the others serving the old row until it expires. That is fine for a single
+ * node, which is what this is built for; with more than one the time-to-live is the staleness
+ * bound, so it is kept short. There is no query cache for the same reason, since its
+ * update-timestamps region is per node as well.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.hibernate.second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    static final String STUDENTS_REGION = "students";
+    static final String STUDENT_NATURAL_IDS_REGION = "students-natural-ids";
+    static final String DOMAINS_REGION = "domains";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.hibernate.second-level-cache.students-max-size:50000}") long studentsMaxSize,
+            @Value("${app.hibernate.second-level-cache.time-to-live:30s}") Duration timeToLive) {
+        // A manager of its own per context, so contexts sharing a JVM (tests) never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader(),
+                        new Properties());
+        cacheManager.createCache(STUDENTS_REGION, region(studentsMaxSize, timeToLive));
+        cacheManager.createCache(STUDENT_NATURAL_IDS_REGION, region(studentsMaxSize, timeToLive));
+        cacheManager.createCache(DOMAINS_REGION, region(1000, timeToLive));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
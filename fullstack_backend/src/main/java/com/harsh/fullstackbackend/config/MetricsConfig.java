@@ -0,0 +1,59 @@
+package com.harsh.fullstackbackend.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Histogram buckets for request and I/O timers. Every endpoint is already timed by Spring's
+ * {@code http.server.requests}; this adds the service-level buckets Prometheus needs to answer
+ * "what share of requests finished within X" without exporting dozens of default buckets.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<String> TIMED_PREFIXES = List.of("http.server.requests", "auth.", "photos.");
+
+    private static final Duration[] LATENCY_SLOS = {
+            Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5)
+    };
+
+    // Photograph sizes: 16 KiB thumbnails up to the 10 MiB upload limit
+    private static final double[] SIZE_SLOS = {
+            16 * 1024, 64 * 1024, 256 * 1024, 1024 * 1024, 4 * 1024 * 1024, 10 * 1024 * 1024
+    };
+
+    @Bean
+    public MeterFilter serviceLevelObjectives() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (TIMED_PREFIXES.stream().noneMatch(id.getName()::startsWith)) {
+                    return config;
+                }
+                DistributionStatisticConfig.Builder slos = DistributionStatisticConfig.builder();
+                if (id.getType() == Meter.Type.TIMER) {
+                    slos.serviceLevelObjectives(toNanos(LATENCY_SLOS));
+                } else if (id.getType() == Meter.Type.DISTRIBUTION_SUMMARY) {
+                    slos.serviceLevelObjectives(SIZE_SLOS);
+                } else {
+                    return config;
+                }
+                return slos.build().merge(config);
+            }
+        };
+    }
+
+    private static double[] toNanos(Duration[] durations) {
+        double[] nanos = new double[durations.length];
+        for (int i = 0; i < durations.length; i++) {
+            nanos[i] = durations[i].toNanos();
+        }
+        return nanos;
+    }
+}
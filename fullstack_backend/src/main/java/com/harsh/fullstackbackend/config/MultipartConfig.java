@@ -0,0 +1,41 @@
+package com.harsh.fullstackbackend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Leaves student create and update requests unparsed so StudentController can stream their
+ * photograph into the photo store instead of the container spooling it to disk first. Every
+ * other multipart request (the bulk import) is resolved as usual.
+ */
+@Configuration
+public class MultipartConfig {
+
+    private static final Pattern STUDENT_PATH = Pattern.compile("/api/students/\\d+");
+
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public StandardServletMultipartResolver multipartResolver(MultipartProperties multipartProperties) {
+        StandardServletMultipartResolver resolver = new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                return super.isMultipart(request) && !isStreamed(request);
+            }
+        };
+        resolver.setResolveLazily(multipartProperties.isResolveLazily());
+        return resolver;
+    }
+
+    static boolean isStreamed(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return switch (request.getMethod()) {
+            case "POST" -> path.equals("/api/students") || path.equals("/api/students/");
+            case "PUT" -> STUDENT_PATH.matcher(path).matches();
+            default -> false;
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package com.harsh.fullstackbackend.config;
 
 import com.harsh.fullstackbackend.filter.JwtAuthenticationFilter;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -30,6 +33,12 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints - no authentication required
                         .requestMatchers("/login", "/oauth2/callback", "/error").permitAll()
+                        // Probes and the Prometheus scraper carry no Google session; keep the
+                        // management port off public networks (management.server.port/address)
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class))
+                        .permitAll()
+                        // Photo store maintenance (GC reports, dry runs) is for the admin only
+                        .requestMatchers("/api/photos/**").hasRole("ADMIN")
                         // All API endpoints require authentication
                         .requestMatchers("/api/**").authenticated()
                         // Any other request requires authentication
@@ -0,0 +1,60 @@
+package com.harsh.fullstackbackend.config;
+
+import com.harsh.fullstackbackend.filter.ConcurrencyLimitFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ThreadingConfig {
+
+    // A request holds a connection for only part of its time (token checks, file I/O, writing the body)
+    private static final int IN_FLIGHT_PER_CONNECTION = 4;
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * One client, and so one connection pool, for every Google endpoint. Callers block on
+     * send(); in virtual-thread mode the client's own async work runs on virtual threads too.
+     */
+    @Bean
+    public HttpClient googleHttpClient(BackgroundThreads backgroundThreads) {
+        HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10));
+        if (backgroundThreads.isVirtual()) {
+            builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Only needed on virtual threads: with platform threads Tomcat's worker pool is the cap.
+     * Unless set explicitly, the cap follows the Hikari pool size so the two stay in step. It runs
+     * ahead of Spring Security so requests turned away are never authenticated first.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(DataSource dataSource,
+            @Value("${app.concurrency.max-in-flight:0}") int maxInFlight,
+            @Value("${app.concurrency.max-wait:10s}") Duration maxWait) {
+        if (maxInFlight <= 0) {
+            // Hikari reports -1 until the pool starts if no size was configured
+            int poolSize = dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0
+                    ? hikari.getMaximumPoolSize()
+                    : HIKARI_DEFAULT_POOL_SIZE;
+            maxInFlight = poolSize * IN_FLIGHT_PER_CONNECTION;
+        }
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxInFlight, maxWait));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
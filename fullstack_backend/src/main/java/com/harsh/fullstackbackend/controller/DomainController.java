@@ -2,16 +2,21 @@ package com.harsh.fullstackbackend.controller;
 
 import com.harsh.fullstackbackend.dto.DomainRequest;
 import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.dto.DomainStatsResponse;
+import com.harsh.fullstackbackend.service.DomainCatalog;
 import com.harsh.fullstackbackend.service.DomainService;
 import jakarta.validation.Valid;
 import java.util.List;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/domains")
@@ -23,9 +28,24 @@ public class DomainController {
         this.domainService = domainService;
     }
 
+    /**
+     * The catalog with an ETag of its snapshot version; unchanged catalogs get 304.
+     */
     @GetMapping
-    public List<DomainResponse> getDomains() {
-        return domainService.getAllDomains();
+    public ResponseEntity<List<DomainResponse>> getDomains(WebRequest request) {
+        DomainCatalog.Snapshot catalog = domainService.getCatalog();
+        if (request.checkNotModified(catalog.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(catalog.etag())
+                .body(catalog.domains());
+    }
+
+    @GetMapping("/stats")
+    public List<DomainStatsResponse> getDomainStatistics() {
+        return domainService.getStatistics();
     }
 
     @PostMapping
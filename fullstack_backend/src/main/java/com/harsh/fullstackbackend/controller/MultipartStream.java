@@ -0,0 +1,250 @@
+package com.harsh.fullstackbackend.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Reads a multipart/form-data body one part at a time straight off the request stream, so a
+ * part's content can be piped to its destination without being spooled first. Only one window
+ * of the body is held in memory; each part's content must be read (or skipped by moving to the
+ * next part) before the next part is available.
+ */
+final class MultipartStream {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final InputStream in;
+    private final long maxBodyBytes;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    // No delimiter starts before this index of the buffer, so searches resume here
+    private int searched;
+    private long consumed;
+    private boolean eof;
+    private boolean finished;
+    private PartContent current;
+
+    /**
+     * @param contentType the request's Content-Type, carrying the boundary
+     * @param maxBodyBytes reading more of the body than this fails with MaxUploadSizeExceededException
+     */
+    MultipartStream(InputStream in, String contentType, long maxBodyBytes) {
+        String boundary = null;
+        try {
+            boundary = MediaType.parseMediaType(contentType).getParameter("boundary");
+        } catch (RuntimeException e) {
+            // reported below
+        }
+        if (!StringUtils.hasText(boundary)) {
+            throw new IllegalArgumentException("Request must be multipart/form-data with a boundary");
+        }
+        if (boundary.length() > 2 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+            boundary = boundary.substring(1, boundary.length() - 1);
+        }
+        this.in = in;
+        this.maxBodyBytes = maxBodyBytes;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+        // The first boundary is not preceded by a line break; pretend it is so every delimiter looks the same
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        this.limit = 2;
+        this.current = new PartContent();
+    }
+
+    /**
+     * The next part, or null after the closing boundary. Whatever is left of the previous part's
+     * content (or the preamble) is skipped.
+     */
+    Part next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        current.skip();
+        // After a delimiter: "--" closes the body, otherwise the part's headers follow
+        fill(2);
+        if (limit - position >= 2 && buffer[position] == '-' && buffer[position + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        // Rest of the boundary line (transport padding)
+        readHeaderLine();
+
+        String name = null;
+        String filename = null;
+        String contentType = null;
+        int headerBytes = 0;
+        String line;
+        while (!(line = readHeaderLine()).isEmpty()) {
+            headerBytes += line.length();
+            if (headerBytes > MAX_HEADER_BYTES) {
+                throw new IllegalArgumentException("Multipart part headers are too large");
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String header = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (header.equals("content-disposition")) {
+                ContentDisposition disposition = ContentDisposition.parse(value);
+                name = disposition.getName();
+                filename = disposition.getFilename();
+            } else if (header.equals("content-type")) {
+                contentType = value;
+            }
+        }
+        current = new PartContent();
+        return new Part(name, filename, contentType, current);
+    }
+
+    /**
+     * A part's headers and its content, readable until the next call to {@link #next}.
+     */
+    record Part(String name, String filename, String contentType, InputStream content) {
+
+        /**
+         * The whole content, refusing parts longer than maxBytes.
+         */
+        byte[] readAll(int maxBytes) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[1024];
+            int read;
+            while ((read = content.read(chunk)) != -1) {
+                if (bytes.size() + read > maxBytes) {
+                    throw new IllegalArgumentException("Part '%s' exceeds %d bytes".formatted(name, maxBytes));
+                }
+                bytes.write(chunk, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Ensures at least wanted bytes are buffered past position, unless the body ends first.
+     */
+    private void fill(int wanted) throws IOException {
+        if (limit - position >= wanted || eof) {
+            return;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            searched = Math.max(0, searched - position);
+            position = 0;
+        }
+        while (limit < wanted) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                eof = true;
+                return;
+            }
+            consumed += read;
+            if (consumed > maxBodyBytes) {
+                throw new MaxUploadSizeExceededException(maxBodyBytes);
+            }
+            limit += read;
+        }
+    }
+
+    private String readHeaderLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (true) {
+            fill(2);
+            if (limit - position < 2) {
+                throw new IOException("Unexpected end of multipart body");
+            }
+            if (buffer[position] == CRLF[0] && buffer[position + 1] == CRLF[1]) {
+                position += 2;
+                return line.toString(StandardCharsets.UTF_8);
+            }
+            if (line.size() >= MAX_HEADER_BYTES) {
+                throw new IllegalArgumentException("Multipart part headers are too large");
+            }
+            line.write(buffer[position++]);
+        }
+    }
+
+    /**
+     * Index of the delimiter in the buffered window, or -1.
+     */
+    private int findDelimiter() {
+        int last = limit - delimiter.length;
+        outer:
+        for (int i = Math.max(position, searched); i <= last; i++) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            searched = i;
+            return i;
+        }
+        searched = Math.max(position, last + 1);
+        return -1;
+    }
+
+    /**
+     * Content of one part: bytes up to the next delimiter, which is consumed at the end.
+     */
+    private final class PartContent extends InputStream {
+
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (done || current != this) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            while (true) {
+                fill(delimiter.length);
+                int found = findDelimiter();
+                // Without a delimiter, the tail may still be the start of one
+                int available = found >= 0 ? found - position : limit - position - (delimiter.length - 1);
+                if (available > 0) {
+                    int count = Math.min(available, length);
+                    System.arraycopy(buffer, position, target, offset, count);
+                    position += count;
+                    return count;
+                }
+                if (found >= 0) {
+                    position += delimiter.length;
+                    done = true;
+                    return -1;
+                }
+                if (eof) {
+                    throw new IOException("Unexpected end of multipart body");
+                }
+                // The window is full of a possible delimiter prefix; make room and read more
+                fill(limit - position + 1);
+            }
+        }
+
+        void skip() throws IOException {
+            byte[] discard = new byte[4096];
+            while (read(discard, 0, discard.length) != -1) {
+                // drain
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.harsh.fullstackbackend.controller;
 
 import com.harsh.fullstackbackend.service.TokenService;
+import com.harsh.fullstackbackend.service.TokenVerificationCache;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +21,9 @@ public class OAuthController {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private TokenVerificationCache tokenVerificationCache;
+
     @Value("${app.google.client-id}")
     private String clientId;
 
@@ -101,6 +105,7 @@ public class OAuthController {
      */
     @PostMapping("/signout")
     public void signout(@CookieValue(value = "user_email", required = false) String email,
+            @CookieValue(value = "google_id_token", required = false) String idToken,
             HttpServletResponse response) {
 
         // Remove tokens from session
@@ -108,6 +113,11 @@ public class OAuthController {
             tokenService.removeTokens(email);
         }
 
+        // Forget the cached verification so the token is not accepted from cache
+        if (idToken != null) {
+            tokenVerificationCache.invalidate(idToken);
+        }
+
         // Delete ID token cookie
         Cookie idTokenCookie = new Cookie("google_id_token", null);
         idTokenCookie.setHttpOnly(true);
@@ -0,0 +1,43 @@
+package com.harsh.fullstackbackend.controller;
+
+import com.harsh.fullstackbackend.dto.PhotoSweepReport;
+import com.harsh.fullstackbackend.exception.ResourceNotFoundException;
+import com.harsh.fullstackbackend.service.PhotoGarbageCollector;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Photo store maintenance; admin only (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/photos")
+public class PhotoController {
+
+    private final PhotoGarbageCollector photoGarbageCollector;
+
+    public PhotoController(PhotoGarbageCollector photoGarbageCollector) {
+        this.photoGarbageCollector = photoGarbageCollector;
+    }
+
+    /**
+     * The report of the last photo garbage collection, scheduled or requested below.
+     */
+    @GetMapping("/orphans")
+    public PhotoSweepReport findOrphans() {
+        return photoGarbageCollector.lastReport()
+                .orElseThrow(() -> new ResourceNotFoundException("No photo garbage collection has run yet"));
+    }
+
+    /**
+     * Starts a dry run in the background: what the collector would reclaim now, without deleting
+     * anything. Its report replaces the one served by {@link #findOrphans} when it finishes.
+     */
+    @PostMapping("/orphans/dry-run")
+    public ResponseEntity<Void> startDryRun() {
+        photoGarbageCollector.requestDryRun();
+        return ResponseEntity.accepted().build();
+    }
+}
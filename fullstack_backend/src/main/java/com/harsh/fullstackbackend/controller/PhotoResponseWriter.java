@@ -0,0 +1,127 @@
+package com.harsh.fullstackbackend.controller;
+
+import com.harsh.fullstackbackend.service.StudentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Writes a stored photograph with validators (strong ETag from the content hash, Last-Modified),
+ * 304 handling, single byte-range support and a zero-copy body: Tomcat's sendfile when the
+ * connector offers it, otherwise FileChannel.transferTo into the response. Returns the number of
+ * body bytes sent (or handed to sendfile).
+ */
+final class PhotoResponseWriter {
+
+    static final String VERSION_PARAM = "v";
+
+    private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+    private static final String REVALIDATE = "private, no-cache";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private PhotoResponseWriter() {
+    }
+
+    static long write(StudentService.PhotoResource photo, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String etag = photo.etag();
+        // A URL carrying the content hash can only ever name these bytes, so browsers may keep it forever
+        boolean versioned = !photo.fallback() && photo.sha256().equals(request.getParameter(VERSION_PARAM));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, versioned ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag, photo.lastModified())) {
+            return 0;
+        }
+
+        long length = photo.length();
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && rangeApplies(request, etag, photo.lastModified())) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multiple ranges would need a multipart/byteranges body; a full 200 is equally valid
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                if (start >= length || end < start) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return 0;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d".formatted(start, end, length));
+            }
+        }
+
+        long count = length == 0 ? 0 : end - start + 1;
+        response.setContentType(photo.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "inline; filename=\"%s\"".formatted(photo.path().getFileName()));
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return 0;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat streams the file with sendfile(2) once the request leaves the servlet
+            request.setAttribute(SENDFILE_FILENAME, photo.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return count;
+        }
+
+        long remaining = count;
+        try (FileChannel file = FileChannel.open(photo.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        return count - remaining;
+    }
+
+    /**
+     * If-Range: only honour the range while the client's copy is still current.
+     */
+    private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.harsh.fullstackbackend.controller;
+
+import com.harsh.fullstackbackend.service.ImageTypes;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * The photograph part of a streamed create or update, handed to StudentService as a
+ * MultipartFile whose content can be read once, straight off the request, so the photo store's
+ * staging copy is the only one. The first bytes are read up front to recognise a JPEG, PNG or
+ * GIF image ({@link ImageTypes}); anything else is refused before a byte is written, and the
+ * recognised type replaces whatever the client declared. Reading more than maxBytes fails with
+ * MaxUploadSizeExceededException.
+ */
+final class StreamedPhotograph implements MultipartFile, AutoCloseable {
+
+    private final String name;
+    private final String filename;
+    private final String contentType;
+    private final InputStream content;
+    private final boolean empty;
+    private final Path spool;
+    private boolean opened;
+
+    private StreamedPhotograph(String name, String filename, String contentType, InputStream content, boolean empty,
+            Path spool) {
+        this.name = name;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.content = content;
+        this.empty = empty;
+        this.spool = spool;
+    }
+
+    /**
+     * Wraps the part without reading past its first few bytes; the caller must consume it before
+     * moving on in the multipart stream.
+     */
+    static StreamedPhotograph stream(MultipartStream.Part part, long maxBytes) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(new SizeLimited(part.content(), maxBytes),
+                ImageTypes.SIGNATURE_BYTES);
+        byte[] header = in.readNBytes(ImageTypes.SIGNATURE_BYTES);
+        in.unread(header);
+        String sniffed = header.length == 0 ? null : ImageTypes.sniff(header);
+        if (header.length > 0 && sniffed == null) {
+            throw new IllegalArgumentException(ImageTypes.UNSUPPORTED_MESSAGE);
+        }
+        String filename = part.filename() != null ? part.filename() : part.name();
+        return new StreamedPhotograph(part.name(), filename, sniffed, in, header.length == 0, null);
+    }
+
+    /**
+     * For a photograph sent before the student part: checked the same way, then copied to a temp
+     * file so the rest of the request can be read. {@link #close} deletes the copy.
+     */
+    static StreamedPhotograph spool(MultipartStream.Part part, long maxBytes) throws IOException {
+        StreamedPhotograph streamed = stream(part, maxBytes);
+        if (streamed.empty) {
+            return streamed;
+        }
+        Path spool = Files.createTempFile("photograph-", ".part");
+        try {
+            Files.copy(streamed.content, spool, StandardCopyOption.REPLACE_EXISTING);
+            return new StreamedPhotograph(streamed.name, streamed.filename, streamed.contentType,
+                    Files.newInputStream(spool), false, spool);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * Unknown until the content has been read; the photo store measures it while staging.
+     */
+    @Override
+    public long getSize() {
+        return empty ? 0 : -1;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        try (InputStream in = getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        if (opened) {
+            throw new IllegalStateException("Photograph content has already been read");
+        }
+        opened = true;
+        return content;
+    }
+
+    @Override
+    public void transferTo(File destination) throws IOException {
+        try (InputStream in = getInputStream()) {
+            Files.copy(in, destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spool != null) {
+            content.close();
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private static final class SizeLimited extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        SizeLimited(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(long read) {
+            count += read;
+            if (count > limit) {
+                throw new MaxUploadSizeExceededException(limit);
+            }
+        }
+    }
+}
@@ -1,45 +1,149 @@
 package com.harsh.fullstackbackend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.harsh.fullstackbackend.dto.BulkImportResult;
+import com.harsh.fullstackbackend.dto.StudentBatchRequest;
+import com.harsh.fullstackbackend.dto.StudentBatchResponse;
+import com.harsh.fullstackbackend.dto.StudentFilter;
+import com.harsh.fullstackbackend.dto.StudentPage;
+import com.harsh.fullstackbackend.dto.StudentPatch;
 import com.harsh.fullstackbackend.dto.StudentRequest;
 import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.dto.StudentSearchPage;
+import com.harsh.fullstackbackend.service.PhotoDerivativeService;
+import com.harsh.fullstackbackend.service.StudentExportService;
+import com.harsh.fullstackbackend.service.StudentImportService;
 import com.harsh.fullstackbackend.service.StudentService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import org.springframework.core.io.Resource;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.multipart.MultipartHttpServletRequest;
 
 @RestController
 @RequestMapping("/api/students")
 public class StudentController {
 
     private final StudentService studentService;
+    private final StudentExportService studentExportService;
+    private final StudentImportService studentImportService;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
-    public StudentController(StudentService studentService, ObjectMapper objectMapper) {
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxPhotographSize = DataSize.ofMegabytes(10);
+
+    @Value("${spring.servlet.multipart.max-request-size:10MB}")
+    private DataSize maxRequestSize = DataSize.ofMegabytes(10);
+
+    public StudentController(StudentService studentService, StudentExportService studentExportService,
+            StudentImportService studentImportService, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.studentService = studentService;
+        this.studentExportService = studentExportService;
+        this.studentImportService = studentImportService;
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
     }
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final int MAX_STUDENT_BYTES = 64 * 1024;
+    private static final Pattern WINDOWS_PATH = Pattern.compile("^[A-Za-z]:.*");
+
+    /**
+     * Returns one keyset page of students; pass the X-Next-Cursor response header back as
+     * {@code cursor} to fetch the following page.
+     */
     @GetMapping
-    public List<StudentResponse> getStudents() {
-        return studentService.getAllStudents();
+    public ResponseEntity<List<StudentResponse>> getStudents(StudentFilter filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        StudentPage page = studentService.getStudents(filter, sort, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.students());
+    }
+
+    /**
+     * Streams the full registry as NDJSON or CSV, gzip-compressed when the client accepts it.
+     */
+    @GetMapping("/export")
+    public void exportStudents(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        StudentExportService.Format exportFormat = StudentExportService.Format.parse(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"students.%s\"".formatted(exportFormat.extension()));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        studentExportService.export(exportFormat, out);
+        if (gzip) {
+            ((GZIPOutputStream) out).finish();
+        }
+        response.flushBuffer();
+    }
+
+    /**
+     * Search by partial first/last name, email or roll number, best matches first.
+     */
+    @GetMapping("/search")
+    public StudentSearchPage searchStudents(@RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        return studentService.searchStudents(query, page, size);
+    }
+
+    /**
+     * Many students by id and/or roll number in one round trip, in request order, with the keys
+     * that matched nobody listed as missing.
+     */
+    @PostMapping("/batch")
+    public StudentBatchResponse getStudentsBatch(@RequestBody StudentBatchRequest request) {
+        return studentService.getStudentsBatch(request);
     }
 
     @GetMapping("/{id}")
@@ -47,40 +151,88 @@ public class StudentController {
         return studentService.getStudent(id);
     }
 
-    @GetMapping("/{id}/photo")
-    public ResponseEntity<Resource> getStudentPhoto(@PathVariable Long id) {
-        StudentService.PhotoResource photo = studentService.getStudentPhoto(id);
-        MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-        if (photo.contentType() != null) {
-            try {
-                mediaType = MediaType.parseMediaType(photo.contentType());
-            } catch (InvalidMediaTypeException ignored) {
-                mediaType = MediaType.APPLICATION_OCTET_STREAM;
-            }
-        }
+    @GetMapping("/roll-number/{rollNumber}")
+    public StudentResponse getStudentByRollNumber(@PathVariable String rollNumber) {
+        return studentService.getStudentByRollNumber(rollNumber);
+    }
 
-        String filename = photo.resource().getFilename();
-        if (filename == null || filename.isBlank()) {
-            filename = "student-%d-photo".formatted(id);
+    /**
+     * Photograph bytes with ETag/Last-Modified validators and Range support. size picks a
+     * rendition (thumb, medium or original); links built with {@code ?v=<photographVersion>} are
+     * served as immutable. Timed as {@code photos.served}, tagged with the rendition and an
+     * outcome of success or error so failed lookups are timed too, and sized as
+     * {@code photos.served.bytes}, tagged with the rendition.
+     */
+    @GetMapping("/{id}/photo")
+    public void getStudentPhoto(@PathVariable Long id,
+            @RequestParam(required = false) String size,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PhotoDerivativeService.Size photoSize = PhotoDerivativeService.Size.parse(size);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        long bytes;
+        try {
+            bytes = PhotoResponseWriter.write(studentService.getStudentPhoto(id, photoSize), request, response);
+            outcome = "success";
+        } finally {
+            sample.stop(Timer.builder("photos.served")
+                    .description("Time to look up and send a photograph")
+                    .tag("size", photoSize.variant())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
-
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"%s\"".formatted(filename))
-                .body(photo.resource());
+        DistributionSummary.builder("photos.served.bytes")
+                .description("Photograph body bytes sent")
+                .baseUnit("bytes")
+                .tag("size", photoSize.variant())
+                .register(meterRegistry)
+                .record(bytes);
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public StudentResponse createStudent(HttpServletRequest httpRequest) {
-        StudentPayload payload = extractStudentPayload(httpRequest, true);
-        return studentService.createStudent(payload.request(), payload.photograph());
+        try (StudentPayload payload = extractStudentPayload(httpRequest, true)) {
+            return studentService.createStudent(payload.request(), payload.photograph());
+        }
+    }
+
+    /**
+     * Registers students in bulk from a CSV or NDJSON manifest (one row per student, with a
+     * "photograph" column naming a file in the ZIP) and a ZIP of photographs.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public BulkImportResult importStudents(@RequestPart("manifest") MultipartFile manifest,
+            @RequestPart("photographs") MultipartFile photographs) {
+        return studentImportService.importStudents(manifest, photographs);
     }
 
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public StudentResponse updateStudent(@PathVariable Long id, HttpServletRequest httpRequest) {
-        StudentPayload payload = extractStudentPayload(httpRequest, false);
-        return studentService.updateStudent(id, payload.request(), payload.photograph());
+        try (StudentPayload payload = extractStudentPayload(httpRequest, false)) {
+            return studentService.updateStudent(id, payload.request(), payload.photograph());
+        }
+    }
+
+    /**
+     * JSON Merge Patch (RFC 7386): fields left out are unchanged, and a null clears an optional
+     * field. The photograph is only replaced through PUT.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public StudentResponse patchStudent(@PathVariable Long id, @RequestBody ObjectNode patch) {
+        Set<String> fields = new HashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        for (String field : fields) {
+            if (!StudentPatch.PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field '%s' cannot be patched".formatted(field));
+            }
+        }
+        try {
+            StudentRequest values = objectMapper.treeToValue(patch, StudentRequest.class);
+            return studentService.patchStudent(id, new StudentPatch(values, fields));
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid student patch: " + e.getOriginalMessage(), e);
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -89,59 +241,95 @@ public class StudentController {
         studentService.deleteStudent(id);
     }
 
-    private StudentPayload extractStudentPayload(HttpServletRequest httpRequest, boolean photographRequired) {
-        if (!(httpRequest instanceof MultipartHttpServletRequest)) {
+    /**
+     * Reads the "student" and "photograph" parts straight off the request body (see
+     * {@link com.harsh.fullstackbackend.config.MultipartConfig}). When the student part comes
+     * first, as the frontend sends it, the photograph is handed over unread and piped into the
+     * photo store; a photograph sent first is spooled to a temp file so the student part can be
+     * reached.
+     */
+    StudentPayload extractStudentPayload(HttpServletRequest httpRequest, boolean photographRequired) {
+        String contentType = httpRequest.getContentType();
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
             throw new IllegalArgumentException("Request must be multipart/form-data");
         }
+        long maxRequestBytes = maxRequestSize.toBytes();
+        if (httpRequest.getContentLengthLong() > maxRequestBytes) {
+            throw new MaxUploadSizeExceededException(maxRequestBytes);
+        }
 
-        MultipartHttpServletRequest multipartRequest = (MultipartHttpServletRequest) httpRequest;
-
-        String studentJson = null;
-        MultipartFile photograph = null;
-
-        java.util.Set<String> paramNames = multipartRequest.getParameterMap().keySet();
-        java.util.Set<String> fileNames = multipartRequest.getFileMap().keySet();
-
-        studentJson = multipartRequest.getParameter("student");
-
-        if (studentJson == null || studentJson.trim().isEmpty()) {
-            MultipartFile studentPart = multipartRequest.getFile("student");
-            if (studentPart != null && !studentPart.isEmpty()) {
-                try {
-                    studentJson = new String(studentPart.getBytes(), StandardCharsets.UTF_8);
-                } catch (IOException e) {
-                    throw new IllegalArgumentException("Error reading student data: " + e.getMessage(), e);
+        StudentRequest request = null;
+        StreamedPhotograph photograph = null;
+        List<String> receivedParts = new ArrayList<>();
+        try {
+            MultipartStream body = new MultipartStream(httpRequest.getInputStream(), contentType, maxRequestBytes);
+            for (MultipartStream.Part part = body.next(); part != null; part = body.next()) {
+                receivedParts.add(part.name());
+                if ("student".equals(part.name()) && request == null) {
+                    request = parseStudent(part.readAll(MAX_STUDENT_BYTES), receivedParts);
+                } else if ("photograph".equals(part.name()) && photograph == null) {
+                    if (request != null) {
+                        // Read by the photo store; nothing after it is needed
+                        photograph = StreamedPhotograph.stream(part, maxPhotographSize.toBytes());
+                        break;
+                    }
+                    photograph = StreamedPhotograph.spool(part, maxPhotographSize.toBytes());
+                }
+                if (request != null && photograph != null) {
+                    break;
                 }
             }
+        } catch (IOException e) {
+            closeQuietly(photograph);
+            throw new IllegalArgumentException("Error reading multipart request: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            closeQuietly(photograph);
+            throw e;
         }
 
-        photograph = multipartRequest.getFile("photograph");
-
-        if (studentJson == null || studentJson.trim().isEmpty()) {
-            String receivedParams = "Received parameters: " + String.join(", ", paramNames);
-            String receivedFiles = "Received files: " + String.join(", ", fileNames);
-            throw new IllegalArgumentException("Student data is required. " + receivedParams + ". " + receivedFiles + ". Make sure 'student' field is sent as text in form-data.");
+        if (request == null) {
+            closeQuietly(photograph);
+            throw new IllegalArgumentException("Student data is required. Received parts: " + String.join(", ", receivedParts)
+                    + ". Make sure 'student' field is sent as text in form-data.");
         }
-
         if (photographRequired && (photograph == null || photograph.isEmpty())) {
+            closeQuietly(photograph);
             throw new IllegalArgumentException("Photograph is required and cannot be empty");
         }
+        return new StudentPayload(request, photograph);
+    }
+
+    private StudentRequest parseStudent(byte[] json, List<String> receivedParts) {
+        int start = 0;
+        while (start < json.length && Character.isWhitespace(json[start])) {
+            start++;
+        }
+        if (start == json.length) {
+            throw new IllegalArgumentException("Student data is required. Received parts: " + String.join(", ", receivedParts)
+                    + ". Make sure 'student' field is sent as text in form-data.");
+        }
+        // Well-formed clients: bind straight from the bytes without building a String first
+        if (json[start] == '{') {
+            try {
+                return objectMapper.readValue(json, StudentRequest.class);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid student JSON format: " + e.getMessage(), e);
+            }
+        }
 
-        String trimmedJson = studentJson.trim();
+        String trimmedJson = new String(json, StandardCharsets.UTF_8).trim();
 
         if (trimmedJson.startsWith("\"") && trimmedJson.endsWith("\"")) {
             trimmedJson = trimmedJson.substring(1, trimmedJson.length() - 1);
             trimmedJson = trimmedJson.replace("\\\"", "\"");
         }
 
-        if ((trimmedJson.matches("^[A-Za-z]:.*") && !trimmedJson.startsWith("{")) ||
+        if ((WINDOWS_PATH.matcher(trimmedJson).matches() && !trimmedJson.startsWith("{")) ||
                 (trimmedJson.contains("\\") && !trimmedJson.contains("\""))) {
-            String receivedParams = "Received parameters: " + String.join(", ", paramNames);
-            String receivedFiles = "Received files: " + String.join(", ", fileNames);
             throw new IllegalArgumentException("Student field appears to contain a file path instead of JSON. " +
                     "Make sure in Postman: 'student' field type is 'Text' (not 'File'), and 'photograph' field type is 'File'. " +
                     "Received student value: " + trimmedJson.substring(0, Math.min(150, trimmedJson.length())) +
-                    ". Parameters: " + receivedParams + ". Files: " + receivedFiles);
+                    ". Parts: " + String.join(", ", receivedParts));
         }
 
         if (!trimmedJson.startsWith("{")) {
@@ -149,16 +337,30 @@ public class StudentController {
         }
 
         try {
-            StudentRequest request = objectMapper.readValue(trimmedJson, StudentRequest.class);
-            return new StudentPayload(request, photograph);
+            return objectMapper.readValue(trimmedJson, StudentRequest.class);
         } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
             throw new IllegalArgumentException("Invalid student JSON format: " + e.getMessage(), e);
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Error processing student data: " + e.getMessage(), e);
         }
     }
 
-    private record StudentPayload(StudentRequest request, MultipartFile photograph) {
+    private static void closeQuietly(StreamedPhotograph photograph) {
+        if (photograph != null) {
+            try {
+                photograph.close();
+            } catch (IOException e) {
+                // only a temp file left behind
+            }
+        }
+    }
+
+    /**
+     * Closing removes the photograph's temp copy, if one was needed.
+     */
+    record StudentPayload(StudentRequest request, StreamedPhotograph photograph) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            closeQuietly(photograph);
+        }
     }
 }
-
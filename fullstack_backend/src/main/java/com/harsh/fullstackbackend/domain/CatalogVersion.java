@@ -0,0 +1,42 @@
+package com.harsh.fullstackbackend.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * A counter per cached reference table (e.g. "domains"), incremented in the same transaction as
+ * every change to that table so other nodes can notice the change with one cheap query.
+ */
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersion {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private Long version;
+
+    public CatalogVersion() {
+        // for JPA
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,43 @@
+package com.harsh.fullstackbackend.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Seats taken in a domain, admitted against its capacity by
+ * {@link com.harsh.fullstackbackend.service.DomainAdmission}. Kept out of Domains so the hot
+ * counter never invalidates the cached domain rows or the catalog snapshot.
+ */
+@Entity
+@Table(name = "domain_seats")
+public class DomainSeats {
+
+    @Id
+    @Column(name = "domain_id")
+    private Long domainId;
+
+    @Column(name = "seats_taken", nullable = false)
+    private Integer seatsTaken;
+
+    public DomainSeats() {
+        // for JPA
+    }
+
+    public Long getDomainId() {
+        return domainId;
+    }
+
+    public void setDomainId(Long domainId) {
+        this.domainId = domainId;
+    }
+
+    public Integer getSeatsTaken() {
+        return seatsTaken;
+    }
+
+    public void setSeatsTaken(Integer seatsTaken) {
+        this.seatsTaken = seatsTaken;
+    }
+}
@@ -0,0 +1,67 @@
+package com.harsh.fullstackbackend.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * A stored photograph file, keyed by the SHA-256 of its bytes, with the number of students that
+ * point at it. Maintained by {@link com.harsh.fullstackbackend.service.LocalPhotoStore}; a row at
+ * zero references stays until {@link com.harsh.fullstackbackend.service.PhotoJanitor} has deleted
+ * the file, so its lock keeps guarding the file against a concurrent upload of the same bytes.
+ */
+@Entity
+@Table(name = "photo_blobs")
+public class PhotoBlob {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "referenced_at")
+    private Instant referencedAt;
+
+    public PhotoBlob() {
+        // for JPA
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public Instant getReferencedAt() {
+        return referencedAt;
+    }
+
+    public void setReferencedAt(Instant referencedAt) {
+        this.referencedAt = referencedAt;
+    }
+}
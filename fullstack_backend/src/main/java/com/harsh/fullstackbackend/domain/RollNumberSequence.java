@@ -0,0 +1,42 @@
+package com.harsh.fullstackbackend.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Next unreserved roll number sequence per prefix (e.g. MT25). Rows are advanced a block at a
+ * time by {@link com.harsh.fullstackbackend.service.RollNumberAllocator}.
+ */
+@Entity
+@Table(name = "roll_number_sequences")
+public class RollNumberSequence {
+
+    @Id
+    @Column(length = 8)
+    private String prefix;
+
+    @Column(name = "next_value", nullable = false)
+    private Integer nextValue;
+
+    public RollNumberSequence() {
+        // for JPA
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public Integer getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Integer nextValue) {
+        this.nextValue = nextValue;
+    }
+}
@@ -6,12 +6,26 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+/**
+ * Cached in the second-level "students" region, and by roll number in "students-natural-ids".
+ * Writes through JPA keep both current; bulk JPQL updates evict the region, while plain JDBC
+ * writes to existing rows would not and must not be added. Updates set only the changed columns.
+ */
 @Entity
-@Table(name = "Students")
+@DynamicUpdate
+@Table(name = "Students", indexes = @Index(name = "idx_students_photograph_path", columnList = "photograph_path"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "students")
+@NaturalIdCache(region = "students-natural-ids")
 public class Student {
 
     @Id
@@ -19,6 +33,7 @@ public class Student {
     @Column(name = "student_id")
     private Long id;
 
+    @NaturalId
     @Column(name = "roll_number", nullable = false, unique = true, length = 20)
     private String rollNumber;
 
@@ -34,6 +49,13 @@ public class Student {
     @Column(name = "photograph_path")
     private String photographPath;
 
+    @Column(name = "photograph_content_type", length = 100)
+    private String photographContentType;
+
+    /** Hex SHA-256 of the photograph bytes; doubles as its strong ETag and cache-busting version. */
+    @Column(name = "photograph_sha256", length = 64)
+    private String photographSha256;
+
     @Column(name = "cgpa")
     private Double cgpa;
 
@@ -105,6 +127,22 @@ public class Student {
         this.photographPath = photographPath;
     }
 
+    public String getPhotographContentType() {
+        return photographContentType;
+    }
+
+    public void setPhotographContentType(String photographContentType) {
+        this.photographContentType = photographContentType;
+    }
+
+    public String getPhotographSha256() {
+        return photographSha256;
+    }
+
+    public void setPhotographSha256(String photographSha256) {
+        this.photographSha256 = photographSha256;
+    }
+
     public Double getCgpa() {
         return cgpa;
     }
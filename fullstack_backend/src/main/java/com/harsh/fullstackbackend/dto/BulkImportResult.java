@@ -0,0 +1,21 @@
+package com.harsh.fullstackbackend.dto;
+
+import java.util.List;
+
+public record BulkImportResult(
+        int received,
+
+        List<ImportedStudent> imported,
+
+        List<RowError> errors
+) {
+
+    /**
+     * A manifest row that was registered; row numbers are 1-based data rows of the manifest.
+     */
+    public record ImportedStudent(int row, String rollNumber, String email) {
+    }
+
+    public record RowError(int row, String message) {
+    }
+}
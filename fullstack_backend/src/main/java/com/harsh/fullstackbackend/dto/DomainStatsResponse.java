@@ -0,0 +1,24 @@
+package com.harsh.fullstackbackend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrolment figures for one domain. cgpaDistribution has one bucket per whole CGPA point, the
+ * last one closed at 10; graduationYears is ordered by year. remaining is null when the domain
+ * has no capacity.
+ */
+public record DomainStatsResponse(
+        Long domainId,
+        String program,
+        String batch,
+        Integer capacity,
+        long enrolled,
+        Integer remaining,
+        List<CgpaBucket> cgpaDistribution,
+        Map<Integer, Long> graduationYears
+) {
+
+    public record CgpaBucket(double from, double to, long students) {
+    }
+}
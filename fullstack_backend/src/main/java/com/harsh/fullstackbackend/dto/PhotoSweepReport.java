@@ -0,0 +1,40 @@
+package com.harsh.fullstackbackend.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of one photo garbage collection run. In a dry run nothing is deleted and the reclaimed
+ * counts stay zero; orphaned lists what a real run would try to remove, with a sample of locations.
+ */
+public record PhotoSweepReport(
+        boolean dryRun,
+
+        Instant startedAt,
+
+        Duration took,
+
+        int filesScanned,
+
+        int referencedLocations,
+
+        int orphanedFiles,
+
+        long orphanedBytes,
+
+        int reclaimedFiles,
+
+        long reclaimedBytes,
+
+        int keptFiles,
+
+        int failedFiles,
+
+        int abandonedUploads,
+
+        long abandonedUploadBytes,
+
+        List<String> orphanSample
+) {
+}
@@ -0,0 +1,10 @@
+package com.harsh.fullstackbackend.dto;
+
+import java.util.List;
+
+public record StudentBatchRequest(
+        List<Long> ids,
+
+        List<String> rollNumbers
+) {
+}
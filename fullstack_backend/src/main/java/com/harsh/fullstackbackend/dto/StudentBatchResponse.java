@@ -0,0 +1,12 @@
+package com.harsh.fullstackbackend.dto;
+
+import java.util.List;
+
+public record StudentBatchResponse(
+        List<StudentResponse> students,
+
+        List<Long> missingIds,
+
+        List<String> missingRollNumbers
+) {
+}
@@ -0,0 +1,14 @@
+package com.harsh.fullstackbackend.dto;
+
+public record StudentFilter(
+        Long domainId,
+
+        Integer graduationYear,
+
+        Double minCgpa,
+
+        Double maxCgpa,
+
+        Integer specialisationId
+) {
+}
@@ -0,0 +1,10 @@
+package com.harsh.fullstackbackend.dto;
+
+import java.util.List;
+
+public record StudentPage(
+        List<StudentResponse> students,
+
+        String nextCursor
+) {
+}
@@ -0,0 +1,21 @@
+package com.harsh.fullstackbackend.dto;
+
+import java.util.Set;
+
+/**
+ * A JSON Merge Patch of a student. values carries the supplied fields and fields names them, so
+ * a field that was left out can be told apart from one explicitly set to null.
+ */
+public record StudentPatch(
+        StudentRequest values,
+
+        Set<String> fields
+) {
+
+    public static final Set<String> PATCHABLE_FIELDS = Set.of("firstName", "lastName", "email", "cgpa",
+            "totalCredits", "graduationYear", "domainId", "specialisationId", "placementId");
+
+    public boolean has(String field) {
+        return fields.contains(field);
+    }
+}
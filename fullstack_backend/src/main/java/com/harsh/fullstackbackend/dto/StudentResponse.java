@@ -7,6 +7,7 @@ public record StudentResponse(
         String lastName,
         String email,
         String photographPath,
+        String photographVersion,
         Double cgpa,
         Integer totalCredits,
         Integer graduationYear,
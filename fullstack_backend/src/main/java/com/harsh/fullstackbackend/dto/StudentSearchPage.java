@@ -0,0 +1,14 @@
+package com.harsh.fullstackbackend.dto;
+
+import java.util.List;
+
+public record StudentSearchPage(
+        List<StudentResponse> students,
+
+        int total,
+
+        int page,
+
+        int size
+) {
+}
@@ -0,0 +1,8 @@
+package com.harsh.fullstackbackend.exception;
+
+public class DomainFullException extends RuntimeException {
+
+    public DomainFullException(String message) {
+        super(message);
+    }
+}
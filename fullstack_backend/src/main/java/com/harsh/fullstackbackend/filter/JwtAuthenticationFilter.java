@@ -1,25 +1,33 @@
 package com.harsh.fullstackbackend.filter;
 
-import com.harsh.fullstackbackend.service.TokenService;
+import com.harsh.fullstackbackend.service.TokenVerificationCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
-    private TokenService tokenService;
+    private TokenVerificationCache tokenVerificationCache;
+
+    @Value("${app.admin-email}")
+    private String adminEmail;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,17 +39,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (idToken != null) {
             try {
-                // Validate token with Google
-                String email = tokenService.validateToken(idToken);
+                // Validate token, reusing an earlier verification of the same cookie
+                String email = tokenVerificationCache.verify(idToken).email();
 
-                // Set authentication in SecurityContext
+                // Set authentication in SecurityContext; the admin also gets ROLE_ADMIN
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(email,
-                        null, new ArrayList<>());
+                        null, adminEmail.equals(email)
+                                ? AuthorityUtils.createAuthorityList("ROLE_ADMIN")
+                                : AuthorityUtils.NO_AUTHORITIES);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
             } catch (Exception e) {
-                // Token validation failed
-                System.out.println("Token validation failed: " + e.getMessage());
+                // Token validation failed; rejections are counted in auth.token.verifications
+                log.debug("Token validation failed: {}", e.getMessage());
                 SecurityContextHolder.clearContext();
             }
         }
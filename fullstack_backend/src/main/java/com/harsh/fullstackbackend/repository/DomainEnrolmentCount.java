@@ -0,0 +1,8 @@
+package com.harsh.fullstackbackend.repository;
+
+/**
+ * Students of one domain with the same graduation year and whole-number CGPA, as counted by the
+ * statistics reconciliation. cgpaFloor is null for students without a CGPA.
+ */
+public record DomainEnrolmentCount(Long domainId, Integer graduationYear, Integer cgpaFloor, Long students) {
+}
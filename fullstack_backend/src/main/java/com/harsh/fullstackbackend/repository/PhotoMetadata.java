@@ -0,0 +1,7 @@
+package com.harsh.fullstackbackend.repository;
+
+/**
+ * The photograph columns of a student, read without loading the entity.
+ */
+public record PhotoMetadata(String path, String contentType, String sha256) {
+}
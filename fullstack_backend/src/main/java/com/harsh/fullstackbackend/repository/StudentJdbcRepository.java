@@ -0,0 +1,99 @@
+package com.harsh.fullstackbackend.repository;
+
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Plain JDBC access for paths where JPA would materialize too much: the rows are mapped to the
+ * same StudentResponse projection as {@link StudentRepository#RESPONSE_PROJECTION}.
+ */
+@Repository
+public class StudentJdbcRepository {
+
+    static final String RESPONSE_SELECT = """
+            select s.student_id, s.roll_number, s.first_name, s.last_name, s.email, s.photograph_path, s.photograph_sha256,
+                   s.cgpa, s.total_credits, s.graduation_year, s.specialisation_id, s.placement_id,
+                   d.domain_id, d.program, d.batch
+            from Students s join Domains d on d.domain_id = s.domain_id
+            """;
+
+    public static final RowMapper<StudentResponse> RESPONSE_ROW_MAPPER = (rs, rowNum) -> new StudentResponse(
+            rs.getLong("student_id"),
+            rs.getString("roll_number"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("email"),
+            rs.getString("photograph_path"),
+            rs.getString("photograph_sha256"),
+            rs.getObject("cgpa", Double.class),
+            rs.getObject("total_credits", Integer.class),
+            rs.getObject("graduation_year", Integer.class),
+            rs.getObject("specialisation_id", Integer.class),
+            rs.getObject("placement_id", Integer.class),
+            rs.getLong("domain_id"),
+            rs.getString("program"),
+            rs.getString("batch")
+    );
+
+    private static final String INSERT = """
+            insert into Students (roll_number, first_name, last_name, email, photograph_path, photograph_content_type,
+                                  photograph_sha256, cgpa, total_credits, graduation_year, specialisation_id,
+                                  placement_id, domain_id)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.export.fetch-size:500}")
+    private int fetchSize;
+
+    public StudentJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stream every student in id order through a forward-only, read-only cursor, handing each row
+     * to the consumer as it is read. Only fetch-size rows are buffered by the driver at a time
+     * (for MySQL this needs useCursorFetch=true on the JDBC URL).
+     */
+    public void streamAll(Consumer<StudentResponse> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(RESPONSE_SELECT + " order by s.student_id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(RESPONSE_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Insert new students as one JDBC batch (for MySQL, add rewriteBatchedStatements=true to the
+     * JDBC URL so the driver sends multi-row inserts). Each student must carry its domain.
+     */
+    public void insertAll(List<Student> students) {
+        jdbcTemplate.batchUpdate(INSERT, students, students.size(), (statement, student) -> {
+            statement.setString(1, student.getRollNumber());
+            statement.setString(2, student.getFirstName());
+            statement.setString(3, student.getLastName());
+            statement.setString(4, student.getEmail());
+            statement.setString(5, student.getPhotographPath());
+            statement.setString(6, student.getPhotographContentType());
+            statement.setString(7, student.getPhotographSha256());
+            statement.setObject(8, student.getCgpa(), Types.DOUBLE);
+            statement.setObject(9, student.getTotalCredits(), Types.INTEGER);
+            statement.setObject(10, student.getGraduationYear(), Types.INTEGER);
+            statement.setObject(11, student.getSpecialisationId(), Types.INTEGER);
+            statement.setObject(12, student.getPlacementId(), Types.INTEGER);
+            statement.setLong(13, student.getDomain().getId());
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.harsh.fullstackbackend.repository;
+
+import com.harsh.fullstackbackend.domain.Student;
+import java.util.Optional;
+
+/**
+ * Lookups by the student's natural id, resolved through Hibernate's natural-id cache rather than
+ * a query.
+ */
+public interface StudentNaturalIdRepository {
+
+    Optional<Student> findByRollNumber(String rollNumber);
+}
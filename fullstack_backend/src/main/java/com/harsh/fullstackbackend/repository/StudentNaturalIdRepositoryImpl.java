@@ -0,0 +1,25 @@
+package com.harsh.fullstackbackend.repository;
+
+import com.harsh.fullstackbackend.domain.Student;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+public class StudentNaturalIdRepositoryImpl implements StudentNaturalIdRepository {
+
+    private final SessionFactory sessionFactory;
+
+    public StudentNaturalIdRepositoryImpl(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public Optional<Student> findByRollNumber(String rollNumber) {
+        // A session of our own: outside a transaction the shared EntityManager closes its session
+        // before a natural-id load could run. Connections are only taken on a cache miss.
+        try (Session session = sessionFactory.openSession()) {
+            return session.bySimpleNaturalId(Student.class).loadOptional(rollNumber);
+        }
+    }
+}
@@ -1,15 +1,96 @@
 package com.harsh.fullstackbackend.repository;
 
 import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentNaturalIdRepository {
+
+    /**
+     * Builds StudentResponse rows straight from a join with Domains, without hydrating entities.
+     */
+    String RESPONSE_PROJECTION = """
+            select new com.harsh.fullstackbackend.dto.StudentResponse(
+                s.id, s.rollNumber, s.firstName, s.lastName, s.email, s.photographPath, s.photographSha256, s.cgpa,
+                s.totalCredits, s.graduationYear, s.specialisationId, s.placementId,
+                d.id, d.program, d.batch)
+            from Student s join s.domain d
+            """;
 
     Optional<Student> findTopByRollNumberStartingWithOrderByRollNumberDesc(String rollNumberPrefix);
 
     boolean existsByEmail(String email);
 
     boolean existsByEmailAndIdNot(String email, Long id);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Student s
+            set s.photographPath = :path, s.photographContentType = :contentType, s.photographSha256 = :sha256
+            where s.id = :id
+            """)
+    int updatePhotograph(@Param("id") Long id, @Param("path") String path, @Param("contentType") String contentType,
+            @Param("sha256") String sha256);
+
+    @Query("select s.email from Student s where s.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("""
+            select new com.harsh.fullstackbackend.repository.DomainEnrolmentCount(
+                s.domain.id, s.graduationYear, cast(floor(s.cgpa) as Integer), count(s))
+            from Student s
+            group by s.domain.id, s.graduationYear, cast(floor(s.cgpa) as Integer)
+            """)
+    List<DomainEnrolmentCount> countEnrolments();
+
+    @Query(RESPONSE_PROJECTION + "where s.rollNumber in :rollNumbers")
+    List<StudentResponse> findResponsesByRollNumberIn(@Param("rollNumbers") Collection<String> rollNumbers);
+
+    @Query(RESPONSE_PROJECTION + "where s.id in :ids or s.rollNumber in :rollNumbers")
+    List<StudentResponse> findResponsesByIdInOrRollNumberIn(@Param("ids") Collection<Long> ids,
+            @Param("rollNumbers") Collection<String> rollNumbers);
+
+    @Query(RESPONSE_PROJECTION + """
+            where (:domainId is null or d.id = :domainId)
+              and (:graduationYear is null or s.graduationYear = :graduationYear)
+              and (:minCgpa is null or s.cgpa >= :minCgpa)
+              and (:maxCgpa is null or s.cgpa <= :maxCgpa)
+              and (:specialisationId is null or s.specialisationId = :specialisationId)
+              and (:afterId is null or s.id > :afterId)
+            order by s.id
+            """)
+    List<StudentResponse> findPageOrderById(@Param("domainId") Long domainId,
+            @Param("graduationYear") Integer graduationYear,
+            @Param("minCgpa") Double minCgpa,
+            @Param("maxCgpa") Double maxCgpa,
+            @Param("specialisationId") Integer specialisationId,
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    @Query(RESPONSE_PROJECTION + """
+            where (:domainId is null or d.id = :domainId)
+              and (:graduationYear is null or s.graduationYear = :graduationYear)
+              and (:minCgpa is null or s.cgpa >= :minCgpa)
+              and (:maxCgpa is null or s.cgpa <= :maxCgpa)
+              and (:specialisationId is null or s.specialisationId = :specialisationId)
+              and (:afterRollNumber is null or s.rollNumber > :afterRollNumber)
+            order by s.rollNumber
+            """)
+    List<StudentResponse> findPageOrderByRollNumber(@Param("domainId") Long domainId,
+            @Param("graduationYear") Integer graduationYear,
+            @Param("minCgpa") Double minCgpa,
+            @Param("maxCgpa") Double maxCgpa,
+            @Param("specialisationId") Integer specialisationId,
+            @Param("afterRollNumber") String afterRollNumber,
+            Limit limit);
 }
 
@@ -0,0 +1,225 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.exception.DomainFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Admits students into a domain against its capacity. A seat is one conditional update of the
+ * domain's domain_seats row ({@code seats_taken + 1 <= capacity}), so concurrent registrations
+ * only ever wait on that row's lock for a single statement, never on a count of Students or a
+ * table lock. Domains without a capacity are counted but never refused.
+ *
+ * A domain found full is remembered for app.domains.admission.full-recheck, and registrations in
+ * that window are refused from memory without a round trip; a seat released on this node clears
+ * it at once. Rows are created with their domain and seeded from Students on first use for
+ * domains that predate the table.
+ */
+@Component
+public class DomainAdmission {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate admissionTransaction;
+    private final long fullRecheckNanos;
+    private final Counter refusedFromMemory;
+    private final Counter refusedFromDatabase;
+
+    // Domain id -> System.nanoTime() until which it is treated as full
+    private final Map<Long, Long> fullUntil = new ConcurrentHashMap<>();
+
+    public DomainAdmission(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, @Value("${app.domains.admission.full-recheck:PT2S}") Duration fullRecheck) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.admissionTransaction = new TransactionTemplate(transactionManager);
+        this.admissionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.fullRecheckNanos = fullRecheck.toNanos();
+        this.refusedFromMemory = refusals(meterRegistry, "memory");
+        this.refusedFromDatabase = refusals(meterRegistry, "database");
+    }
+
+    private static Counter refusals(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("domains.admission.refusals")
+                .description("Registrations refused because the domain was full")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates the seat row of a new domain, in the caller's transaction.
+     */
+    public void open(Long domainId) {
+        jdbcTemplate.update("insert into domain_seats (domain_id, seats_taken) values (?, 0)", domainId);
+    }
+
+    /**
+     * Refuses from memory if the domain was recently found full; no round trip either way.
+     */
+    public void checkOpen(Domain domain) {
+        Long until = fullUntil.get(domain.getId());
+        if (until != null) {
+            if (until - System.nanoTime() > 0) {
+                refusedFromMemory.increment();
+                throw full(domain);
+            }
+            fullUntil.remove(domain.getId(), until);
+        }
+    }
+
+    /**
+     * Takes one seat in its own short transaction, so the row lock is held for one statement.
+     * The caller gives it back with {@link #release} if the student is not saved after all.
+     */
+    public void admit(Domain domain) {
+        checkOpen(domain);
+        Boolean admitted = admissionTransaction.execute(status -> take(domain));
+        if (!Boolean.TRUE.equals(admitted)) {
+            throw full(domain);
+        }
+    }
+
+    /**
+     * Takes up to seats in one domain for a bulk import and returns how many were granted.
+     */
+    public int admit(Domain domain, int seats) {
+        Integer granted = admissionTransaction.execute(status -> {
+            int taken = lock(domain.getId());
+            int grant = domain.getCapacity() == null ? seats : Math.max(0, Math.min(seats, domain.getCapacity() - taken));
+            if (grant > 0) {
+                jdbcTemplate.update("update domain_seats set seats_taken = seats_taken + ? where domain_id = ?",
+                        grant, domain.getId());
+            }
+            return grant;
+        });
+        if (granted < seats) {
+            markFull(domain.getId());
+        }
+        return granted;
+    }
+
+    /**
+     * Moves a student's seat to another domain in the caller's transaction, so it commits or
+     * rolls back with the student row. Nothing happens if the domain is unchanged.
+     */
+    public void transfer(Long fromDomainId, Domain to) {
+        if (Objects.equals(fromDomainId, to.getId())) {
+            return;
+        }
+        checkOpen(to);
+        if (!take(to)) {
+            throw full(to);
+        }
+        vacate(fromDomainId, 1);
+    }
+
+    /**
+     * Gives seats back in the caller's transaction, e.g. with the delete of a student.
+     */
+    public void vacate(Long domainId, int seats) {
+        jdbcTemplate.update("update domain_seats set seats_taken = greatest(seats_taken - ?, 0) where domain_id = ?",
+                seats, domainId);
+        fullUntil.remove(domainId);
+    }
+
+    /**
+     * Gives back seats taken by {@link #admit} for students that were never saved.
+     */
+    public void release(Long domainId, int seats) {
+        if (seats > 0) {
+            admissionTransaction.executeWithoutResult(status -> vacate(domainId, seats));
+        }
+    }
+
+    /**
+     * The re-checks lock the row ({@code for update}), so they read its current version even in a
+     * caller's REPEATABLE READ transaction (transfer) that has already taken its snapshot; a plain
+     * read there could keep reporting a free seat or a missing row and the loop would never end.
+     */
+    private boolean take(Domain domain) {
+        for (int attempt = 1; ; attempt++) {
+            int updated = domain.getCapacity() == null
+                    ? jdbcTemplate.update("update domain_seats set seats_taken = seats_taken + 1 where domain_id = ?",
+                            domain.getId())
+                    : jdbcTemplate.update("""
+                            update domain_seats set seats_taken = seats_taken + 1
+                            where domain_id = ? and seats_taken < ?
+                            """, domain.getId(), domain.getCapacity());
+            if (updated > 0) {
+                return true;
+            }
+            Integer taken = seatsTaken(domain.getId(), true);
+            if (taken != null && domain.getCapacity() != null && taken >= domain.getCapacity()) {
+                refusedFromDatabase.increment();
+                markFull(domain.getId());
+                return false;
+            }
+            // Either the row is missing, or the update lost a race with a concurrent one and matched
+            // nothing although a seat is free; the row lock now held makes the next update stick
+            checkAttempts(domain.getId(), attempt);
+            if (taken == null) {
+                seed(domain.getId());
+            }
+        }
+    }
+
+    private int lock(Long domainId) {
+        for (int attempt = 1; ; attempt++) {
+            Integer taken = seatsTaken(domainId, true);
+            if (taken != null) {
+                return taken;
+            }
+            checkAttempts(domainId, attempt);
+            seed(domainId);
+        }
+    }
+
+    private static void checkAttempts(Long domainId, int attempt) {
+        if (attempt >= MAX_ATTEMPTS) {
+            throw new IllegalStateException("Unable to take a seat in domain %d after %d attempts"
+                    .formatted(domainId, attempt));
+        }
+    }
+
+    private Integer seatsTaken(Long domainId, boolean forUpdate) {
+        List<Integer> taken = jdbcTemplate.queryForList(
+                "select seats_taken from domain_seats where domain_id = ?" + (forUpdate ? " for update" : ""),
+                Integer.class, domainId);
+        return taken.isEmpty() ? null : taken.get(0);
+    }
+
+    /**
+     * Creates the row of a domain that predates domain_seats, counting its current students.
+     */
+    private void seed(Long domainId) {
+        try {
+            jdbcTemplate.update("""
+                    insert into domain_seats (domain_id, seats_taken)
+                    select ?, count(*) from Students where domain_id = ?
+                    """, domainId, domainId);
+        } catch (DuplicateKeyException e) {
+            // Seeded concurrently; use that row
+        }
+    }
+
+    private void markFull(Long domainId) {
+        fullUntil.put(domainId, System.nanoTime() + fullRecheckNanos);
+    }
+
+    private static DomainFullException full(Domain domain) {
+        return new DomainFullException("Domain %d is full (capacity %d)".formatted(domain.getId(), domain.getCapacity()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The whole domain catalog held in memory as an immutable snapshot and swapped atomically on
+ * change, so lookups on the registration path never touch the database. Changes are detected
+ * through the "domains" row of catalog_versions: writers bump it in the same transaction as their
+ * change (see {@link #markChanged()}), and every node polls it. A lookup for an id the snapshot
+ * does not know checks the table once, so a domain created on another node is usable before the
+ * next poll.
+ */
+@Component
+public class DomainCatalog {
+
+    static final String CATALOG_NAME = "domains";
+
+    private final DomainRepository domainRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public DomainCatalog(DomainRepository domainRepository, JdbcTemplate jdbcTemplate) {
+        this.domainRepository = domainRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The current snapshot, loading it on first use.
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    public Optional<DomainResponse> find(Long id) {
+        DomainResponse domain = current().byId().get(id);
+        if (domain == null && id != null && domainRepository.existsById(id)) {
+            domain = reload().byId().get(id);
+        }
+        return Optional.ofNullable(domain);
+    }
+
+    /**
+     * Record a change to Domains. Must run in the transaction making the change, so no node can
+     * see the new version without the change.
+     */
+    public void markChanged() {
+        while (true) {
+            int updated = jdbcTemplate.update(
+                    "update catalog_versions set version = version + 1 where name = ?", CATALOG_NAME);
+            if (updated > 0) {
+                return;
+            }
+            try {
+                jdbcTemplate.update("insert into catalog_versions (name, version) values (?, 1)", CATALOG_NAME);
+                return;
+            } catch (DuplicateKeyException e) {
+                // Another writer created the row first; increment it
+            }
+        }
+    }
+
+    /**
+     * Reload when another node (or this one) has changed the catalog since the snapshot was taken.
+     */
+    @Scheduled(fixedDelayString = "${app.domains.catalog-poll-interval:PT5S}")
+    public void pollForChanges() {
+        Snapshot current = snapshot.get();
+        if (current != null && current.version() != readVersion()) {
+            reload();
+        }
+    }
+
+    public Snapshot reload() {
+        reloadLock.lock();
+        try {
+            // Version first: the rows read next include at least every change it counts
+            long version = readVersion();
+            List<DomainResponse> domains = domainRepository.findAll(Sort.by("id")).stream()
+                    .map(domain -> new DomainResponse(domain.getId(), domain.getProgram(), domain.getBatch(),
+                            domain.getCapacity(), domain.getQualification()))
+                    .toList();
+            Snapshot next = Snapshot.of(version, domains);
+            snapshot.set(next);
+            return next;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private long readVersion() {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "select version from catalog_versions where name = ?", Long.class, CATALOG_NAME);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    /**
+     * One immutable view of the catalog. The ETag also hashes the content, so rows written
+     * without bumping the version still produce a new tag once they are loaded.
+     */
+    public record Snapshot(long version, List<DomainResponse> domains, Map<Long, DomainResponse> byId, String etag) {
+
+        static Snapshot of(long version, List<DomainResponse> domains) {
+            Map<Long, DomainResponse> byId = domains.stream()
+                    .collect(Collectors.toUnmodifiableMap(DomainResponse::id, Function.identity()));
+            String etag = "\"domains-%d-%08x\"".formatted(version, domains.hashCode());
+            return new Snapshot(version, domains, byId, etag);
+        }
+    }
+}
@@ -3,24 +3,46 @@ package com.harsh.fullstackbackend.service;
 import com.harsh.fullstackbackend.domain.Domain;
 import com.harsh.fullstackbackend.dto.DomainRequest;
 import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.dto.DomainStatsResponse;
 import com.harsh.fullstackbackend.exception.ResourceNotFoundException;
 import com.harsh.fullstackbackend.repository.DomainRepository;
 import java.util.List;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class DomainService {
 
     private final DomainRepository domainRepository;
+    private final DomainCatalog domainCatalog;
+    private final DomainStatistics domainStatistics;
+    private final DomainAdmission domainAdmission;
+    private final TransactionTemplate transactionTemplate;
 
-    public DomainService(DomainRepository domainRepository) {
+    public DomainService(DomainRepository domainRepository, DomainCatalog domainCatalog,
+            DomainStatistics domainStatistics, DomainAdmission domainAdmission,
+            PlatformTransactionManager transactionManager) {
         this.domainRepository = domainRepository;
+        this.domainCatalog = domainCatalog;
+        this.domainStatistics = domainStatistics;
+        this.domainAdmission = domainAdmission;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public List<DomainResponse> getAllDomains() {
-        return domainRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+        return domainCatalog.current().domains();
+    }
+
+    public DomainCatalog.Snapshot getCatalog() {
+        return domainCatalog.current();
+    }
+
+    /**
+     * Enrolment figures for every domain in the catalog, from the in-memory counters.
+     */
+    public List<DomainStatsResponse> getStatistics() {
+        return domainStatistics.snapshot(domainCatalog.current().domains());
     }
 
     public DomainResponse createDomain(DomainRequest request) {
@@ -29,14 +51,36 @@ public class DomainService {
         domain.setBatch(request.batch());
         domain.setCapacity(request.capacity());
         domain.setQualification(request.qualification());
-        return toResponse(domainRepository.save(domain));
+        DomainResponse created = transactionTemplate.execute(status -> {
+            DomainResponse response = toResponse(domainRepository.save(domain));
+            domainAdmission.open(response.id());
+            domainCatalog.markChanged();
+            return response;
+        });
+        domainCatalog.reload();
+        return created;
     }
 
-    public Domain getDomainById(Long domainId) {
-        return domainRepository.findById(domainId)
+    public DomainResponse getDomain(Long domainId) {
+        return domainCatalog.find(domainId)
                 .orElseThrow(() -> new ResourceNotFoundException("Domain %d not found".formatted(domainId)));
     }
 
+    /**
+     * A detached Domain built from the catalog snapshot, without a query. It carries every column,
+     * so it can be read (e.g. for the roll number prefix) and set as a student's domain.
+     */
+    public Domain getDomainById(Long domainId) {
+        DomainResponse cached = getDomain(domainId);
+        Domain domain = new Domain();
+        domain.setId(cached.id());
+        domain.setProgram(cached.program());
+        domain.setBatch(cached.batch());
+        domain.setCapacity(cached.capacity());
+        domain.setQualification(cached.qualification());
+        return domain;
+    }
+
     private DomainResponse toResponse(Domain domain) {
         return new DomainResponse(
                 domain.getId(),
@@ -47,4 +91,3 @@ public class DomainService {
         );
     }
 }
-
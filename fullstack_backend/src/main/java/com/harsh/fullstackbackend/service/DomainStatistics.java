@@ -0,0 +1,262 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.dto.DomainStatsResponse;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.repository.DomainEnrolmentCount;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-domain enrolment counts, CGPA histogram and graduation-year breakdown, kept in LongAdders
+ * that StudentService and StudentImportService adjust after each commit, so reading them costs
+ * one pass over the domains rather than a scan of Students.
+ *
+ * Writes that bypass the services (SQL run by hand, another node) make the counters drift; every
+ * app.domains.stats.reconcile-interval they are recounted with one grouped query and replaced.
+ * Corrections are logged and added to the {@code domains.stats.drift} counter.
+ */
+@Component
+public class DomainStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainStatistics.class);
+
+    // One bucket per whole CGPA point on the 0-10 scale; 10.0 falls in the last one
+    static final int CGPA_BUCKETS = 10;
+
+    private final StudentRepository studentRepository;
+    private final Counter drift;
+    // Adjustments hold the read lock, so any number run at once; reconcile takes the write lock
+    // only to start recording adjustments and to swap the recount in
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    private volatile Map<Long, Tally> tallies = new ConcurrentHashMap<>();
+    // Adjustments made while a recount is running, replayed onto it before it is swapped in
+    private volatile Queue<Adjustment> adjustmentsDuringReconcile;
+
+    public DomainStatistics(StudentRepository studentRepository, MeterRegistry meterRegistry) {
+        this.studentRepository = studentRepository;
+        this.drift = Counter.builder("domains.stats.drift")
+                .description("Students the domain statistics were off by when reconciled")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${app.domains.stats.reconcile-interval:PT5M}",
+            fixedDelayString = "${app.domains.stats.reconcile-interval:PT5M}")
+    void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Counts the students that were in a domain before a write and after it; either may be null
+     * for an insert or a delete.
+     */
+    public void record(Enrolment removed, Enrolment added) {
+        if (removed == null && added == null || removed != null && removed.equals(added)) {
+            return;
+        }
+        Adjustment adjustment = new Adjustment(removed, added);
+        lock.readLock().lock();
+        try {
+            adjustment.applyTo(tallies);
+            Queue<Adjustment> recording = adjustmentsDuringReconcile;
+            if (recording != null) {
+                recording.add(adjustment);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void recordAll(Collection<StudentResponse> added) {
+        for (StudentResponse student : added) {
+            record(null, Enrolment.of(student));
+        }
+    }
+
+    /**
+     * Figures for the given domains, in their order; domains without students report zeros.
+     */
+    public List<DomainStatsResponse> snapshot(List<DomainResponse> domains) {
+        Map<Long, Tally> current = tallies;
+        List<DomainStatsResponse> stats = new ArrayList<>(domains.size());
+        for (DomainResponse domain : domains) {
+            Tally tally = current.get(domain.id());
+            stats.add(tally != null ? tally.toResponse(domain) : new Tally().toResponse(domain));
+        }
+        return stats;
+    }
+
+    /**
+     * Recounts every domain from the database and replaces the counters, returning how many
+     * students they were off by. Adjustments made during the recount are replayed onto it; one
+     * that committed just before the recount read its rows can be counted twice, which the next
+     * reconciliation corrects.
+     */
+    public long reconcile() {
+        reconcileLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                adjustmentsDuringReconcile = new ConcurrentLinkedQueue<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Map<Long, Tally> recounted = null;
+            try {
+                recounted = count();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (recounted != null) {
+                        for (Adjustment adjustment : adjustmentsDuringReconcile) {
+                            adjustment.applyTo(recounted);
+                        }
+                    }
+                    adjustmentsDuringReconcile = null;
+                    if (recounted != null) {
+                        long corrected = difference(tallies, recounted);
+                        tallies = recounted;
+                        if (corrected > 0) {
+                            drift.increment(corrected);
+                            log.warn("Domain statistics were off by {} students, corrected", corrected);
+                        }
+                        return corrected;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            return 0;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private Map<Long, Tally> count() {
+        Map<Long, Tally> counted = new ConcurrentHashMap<>();
+        for (DomainEnrolmentCount row : studentRepository.countEnrolments()) {
+            counted.computeIfAbsent(row.domainId(), id -> new Tally())
+                    .add(row.graduationYear(), row.cgpaFloor(), row.students());
+        }
+        return counted;
+    }
+
+    private static long difference(Map<Long, Tally> before, Map<Long, Tally> after) {
+        Set<Long> domains = new HashSet<>(before.keySet());
+        domains.addAll(after.keySet());
+        long difference = 0;
+        for (Long domain : domains) {
+            Tally previous = before.get(domain);
+            Tally current = after.get(domain);
+            difference += Math.abs((previous == null ? 0 : previous.enrolled.sum())
+                    - (current == null ? 0 : current.enrolled.sum()));
+        }
+        return difference;
+    }
+
+    static int cgpaBucket(double cgpa) {
+        return Math.max(0, Math.min(CGPA_BUCKETS - 1, (int) Math.floor(cgpa)));
+    }
+
+    /**
+     * What a student contributes to the statistics.
+     */
+    public record Enrolment(Long domainId, Double cgpa, Integer graduationYear) {
+
+        public static Enrolment of(StudentResponse student) {
+            return new Enrolment(student.domainId(), student.cgpa(), student.graduationYear());
+        }
+
+        /**
+         * Reads only the domain's id, so a lazy domain is not loaded.
+         */
+        public static Enrolment of(Student student) {
+            return new Enrolment(student.getDomain().getId(), student.getCgpa(), student.getGraduationYear());
+        }
+    }
+
+    private record Adjustment(Enrolment removed, Enrolment added) {
+
+        void applyTo(Map<Long, Tally> tallies) {
+            if (removed != null) {
+                tallies.computeIfAbsent(removed.domainId(), id -> new Tally()).add(removed, -1);
+            }
+            if (added != null) {
+                tallies.computeIfAbsent(added.domainId(), id -> new Tally()).add(added, 1);
+            }
+        }
+    }
+
+    private static final class Tally {
+
+        final LongAdder enrolled = new LongAdder();
+        final LongAdder[] cgpa = new LongAdder[CGPA_BUCKETS];
+        final Map<Integer, LongAdder> graduationYears = new ConcurrentHashMap<>();
+
+        Tally() {
+            for (int i = 0; i < CGPA_BUCKETS; i++) {
+                cgpa[i] = new LongAdder();
+            }
+        }
+
+        void add(Enrolment enrolment, long students) {
+            add(enrolment.graduationYear(),
+                    enrolment.cgpa() == null ? null : (int) Math.floor(enrolment.cgpa()), students);
+        }
+
+        void add(Integer graduationYear, Integer cgpaFloor, long students) {
+            enrolled.add(students);
+            if (cgpaFloor != null) {
+                cgpa[cgpaBucket(cgpaFloor)].add(students);
+            }
+            if (graduationYear != null) {
+                graduationYears.computeIfAbsent(graduationYear, year -> new LongAdder()).add(students);
+            }
+        }
+
+        DomainStatsResponse toResponse(DomainResponse domain) {
+            long students = enrolled.sum();
+            List<DomainStatsResponse.CgpaBucket> distribution = new ArrayList<>(CGPA_BUCKETS);
+            for (int i = 0; i < CGPA_BUCKETS; i++) {
+                distribution.add(new DomainStatsResponse.CgpaBucket(i, i + 1, cgpa[i].sum()));
+            }
+            Map<Integer, Long> years = new TreeMap<>();
+            graduationYears.forEach((year, count) -> {
+                long sum = count.sum();
+                if (sum != 0) {
+                    years.put(year, sum);
+                }
+            });
+            Integer remaining = domain.capacity() == null ? null : (int) Math.max(0, domain.capacity() - students);
+            return new DomainStatsResponse(domain.id(), domain.program(), domain.batch(), domain.capacity(),
+                    students, remaining, distribution, years);
+        }
+    }
+}
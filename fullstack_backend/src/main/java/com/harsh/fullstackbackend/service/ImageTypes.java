@@ -0,0 +1,47 @@
+package com.harsh.fullstackbackend.service;
+
+/**
+ * Recognises the photograph formats the portal accepts from their leading bytes, so a streamed
+ * upload and a bulk import refuse the same files. Only formats the JDK's ImageIO can decode are
+ * accepted, so every stored photograph can have its renditions rendered.
+ */
+public final class ImageTypes {
+
+    /**
+     * Leading bytes needed to recognise any accepted format.
+     */
+    public static final int SIGNATURE_BYTES = 12;
+
+    public static final String UNSUPPORTED_MESSAGE = "Photograph must be a JPEG, PNG or GIF image";
+
+    private ImageTypes() {
+    }
+
+    /**
+     * Content type from the file signature, or null when it is not a supported image.
+     */
+    public static String sniff(byte[] header) {
+        if (startsWith(header, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(header, 'G', 'I', 'F', '8', '7', 'a') || startsWith(header, 'G', 'I', 'F', '8', '9', 'a')) {
+            return "image/gif";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int... signature) {
+        if (bytes.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((bytes[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,174 @@
+package com.harsh.fullstackbackend.service;
+
+import com.google.gson.JsonElement;
+import com.harsh.fullstackbackend.config.BackgroundThreads;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import jakarta.annotation.PreDestroy;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches Google's ID token signing keys (JWKS) and refreshes them in the background,
+ * honoring the {@code Cache-Control: max-age} Google sends with the key set.
+ */
+@Component
+public class JwksKeyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeyCache.class);
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration FAILURE_RETRY_DELAY = Duration.ofSeconds(30);
+
+    @Value("${app.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}")
+    private String jwksUri;
+
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Map<String, RSAPublicKey> keys = Map.of();
+    private volatile Instant lastAttempt = Instant.EPOCH;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    // Not synchronized: a virtual thread blocked on the fetch inside a monitor would pin its carrier
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public JwksKeyCache(HttpClient googleHttpClient, BackgroundThreads backgroundThreads) {
+        this.httpClient = googleHttpClient;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("jwks-refresh"));
+    }
+
+    /**
+     * Look up a signing key by its {@code kid}. Returns null when the key is unknown, in which
+     * case a refresh is queued so rotated keys are picked up without blocking the caller.
+     */
+    public RSAPublicKey getKey(String kid) {
+        if (keys.isEmpty()) {
+            refreshIfDue();
+        }
+        RSAPublicKey key = keys.get(kid);
+        if (key == null && !keys.isEmpty()) {
+            scheduler.execute(this::refreshIfDue);
+        }
+        return key;
+    }
+
+    /**
+     * Fetch the key set now unless another fetch happened within the minimum refresh interval.
+     */
+    void refreshIfDue() {
+        refreshLock.lock();
+        try {
+            if (Instant.now().isBefore(lastAttempt.plus(MIN_REFRESH_INTERVAL))) {
+                return;
+            }
+            refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    void refresh() {
+        refreshLock.lock();
+        try {
+            fetchKeys();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void fetchKeys() {
+        lastAttempt = Instant.now();
+        Duration nextRefresh;
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(jwksUri))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("JWKS fetch returned status " + response.statusCode());
+            }
+
+            keys = parseKeys(response.body());
+            nextRefresh = maxAge(response.headers().firstValue("Cache-Control").orElse(null));
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Unable to refresh Google signing keys from {}: {}", jwksUri, e.getMessage());
+            nextRefresh = FAILURE_RETRY_DELAY;
+        }
+        scheduleRefresh(nextRefresh);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        scheduledRefresh = scheduler.schedule(this::refresh, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static Duration maxAge(String cacheControl) {
+        if (cacheControl == null) {
+            return DEFAULT_MAX_AGE;
+        }
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        if (!matcher.find()) {
+            return DEFAULT_MAX_AGE;
+        }
+        Duration maxAge = Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+        return maxAge.compareTo(MIN_REFRESH_INTERVAL) < 0 ? MIN_REFRESH_INTERVAL : maxAge;
+    }
+
+    private static Map<String, RSAPublicKey> parseKeys(String body) throws Exception {
+        JsonObject jwks = JsonParser.parseString(body).getAsJsonObject();
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+
+        Map<String, RSAPublicKey> parsed = new HashMap<>();
+        for (JsonElement element : jwks.getAsJsonArray("keys")) {
+            JsonObject jwk = element.getAsJsonObject();
+            if (!"RSA".equals(jwk.get("kty").getAsString()) || !jwk.has("kid")) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, decoder.decode(jwk.get("n").getAsString()));
+            BigInteger exponent = new BigInteger(1, decoder.decode(jwk.get("e").getAsString()));
+            RSAPublicKey key = (RSAPublicKey) keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent));
+            parsed.put(jwk.get("kid").getAsString(), key);
+        }
+        return Map.copyOf(parsed);
+    }
+}
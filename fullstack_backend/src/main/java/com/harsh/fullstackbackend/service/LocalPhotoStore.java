@@ -0,0 +1,394 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.exception.FileStorageException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * Content-addressed photographs under app.upload-dir: each file is named by the SHA-256 of its
+ * bytes and fanned out over two directory levels (ab/cd/abcd...), so identical uploads share one
+ * file and no directory grows past a few hundred entries. Uploads are staged to a temp file in
+ * the same file system and moved into place atomically, so readers never see a partial file.
+ * photo_blobs counts references; the row lock taken while adding or dropping a reference also
+ * covers moving the file in or deleting it, so a concurrent upload of the same bytes cannot
+ * lose its file to a release. Dropping the last reference only queues the file in
+ * photo_deletions; {@link PhotoJanitor} deletes it later through {@link #reclaim}. Writes are
+ * timed as {@code photos.stored} and sized as {@code photos.stored.bytes}.
+ */
+@Component
+public class LocalPhotoStore implements PhotoStore {
+
+    private static final Pattern LOCATION = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}");
+    private static final String TEMP_DIRECTORY = ".incoming";
+    private static final String DERIVATIVES_DIRECTORY = "derivatives";
+    private static final Duration ABANDONED_AFTER = Duration.ofDays(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate blobTransaction;
+    private final Path root;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary storedBytes;
+    private final Duration referenceGrace;
+
+    public LocalPhotoStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, @Value("${app.upload-dir:uploads}") String uploadDir,
+            @Value("${app.photos.gc.min-age:PT1H}") Duration referenceGrace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.referenceGrace = referenceGrace;
+        this.blobTransaction = new TransactionTemplate(transactionManager);
+        this.blobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.root = Path.of(uploadDir).toAbsolutePath().normalize();
+        this.meterRegistry = meterRegistry;
+        this.storedBytes = DistributionSummary.builder("photos.stored.bytes")
+                .description("Size of photographs written to the upload directory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Staged files left behind by a crash are never committed; clear out any old enough that no
+     * upload on any node can still be working on them.
+     */
+    @PostConstruct
+    void purgeAbandonedStagedFiles() {
+        purgeAbandonedStagedFiles(false);
+    }
+
+    /**
+     * Counts (and unless dryRun, deletes) abandoned staged files; see {@link PhotoGarbageCollector}.
+     */
+    Purged purgeAbandonedStagedFiles(boolean dryRun) {
+        Path tempDirectory = root.resolve(TEMP_DIRECTORY);
+        int files = 0;
+        long bytes = 0;
+        if (!Files.isDirectory(tempDirectory)) {
+            return new Purged(files, bytes);
+        }
+        Instant cutoff = Instant.now().minus(ABANDONED_AFTER);
+        try (DirectoryStream<Path> staged = Files.newDirectoryStream(tempDirectory, "*.part")) {
+            for (Path file : staged) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                    files++;
+                    bytes += attributes.size();
+                    if (!dryRun) {
+                        deleteQuietly(file);
+                    }
+                }
+            }
+        } catch (IOException ignored) {
+            // try again on the next run
+        }
+        return new Purged(files, bytes);
+    }
+
+    /**
+     * Content files under the upload directory (not staged uploads or renditions), read lazily
+     * while the stream is consumed; close it when done.
+     */
+    Stream<StoredFile> storedFiles() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return Stream.empty();
+        }
+        return Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                        && LOCATION.matcher(location(path)).matches())
+                .map(this::storedFile)
+                .filter(Objects::nonNull);
+    }
+
+    private StoredFile storedFile(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new StoredFile(location(path), attributes.size(), attributes.lastModifiedTime().toInstant());
+        } catch (IOException e) {
+            // deleted since it was listed
+            return null;
+        }
+    }
+
+    private String location(Path path) {
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    @Override
+    public StagedPhoto stage(InputStream content) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        Path temp = null;
+        try {
+            Path tempDirectory = Files.createDirectories(root.resolve(TEMP_DIRECTORY));
+            temp = Files.createTempFile(tempDirectory, "upload-", ".part");
+            DigestInputStream digesting = new DigestInputStream(content, sha256Digest());
+            long size = Files.copy(digesting, temp, StandardCopyOption.REPLACE_EXISTING);
+            String sha256 = HexFormat.of().formatHex(digesting.getMessageDigest().digest());
+            storedBytes.record(size);
+            outcome = "success";
+            return new StagedPhoto(temp, locationFor(sha256), sha256, size);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new FileStorageException("Unable to store photograph", e);
+        } catch (RuntimeException e) {
+            // e.g. a streamed upload refused part way through for its size
+            deleteQuietly(temp);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("photos.stored")
+                    .description("Time to receive, hash and write a photograph to disk")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public StoredBlob commit(StagedPhoto staged) {
+        while (true) {
+            try {
+                blobTransaction.executeWithoutResult(status -> {
+                    addReference(staged.sha256(), staged.size());
+                    moveIntoPlace(staged.file(), root.resolve(staged.location()));
+                });
+                return new StoredBlob(staged.location(), staged.sha256(), staged.size());
+            } catch (DuplicateKeyException e) {
+                // Another upload of the same bytes created the row first; add to its count
+            } catch (UncheckedIOException e) {
+                throw new FileStorageException("Unable to store photograph", e);
+            }
+        }
+    }
+
+    @Override
+    public void discard(StagedPhoto staged) {
+        if (staged != null) {
+            deleteQuietly(staged.file());
+        }
+    }
+
+    /**
+     * Dropping the last reference leaves the photo_blobs row at zero and queues the file in
+     * photo_deletions in the same transaction; {@link #reclaim} deletes both later.
+     */
+    @Override
+    public void release(String location) {
+        if (!StringUtils.hasText(location)) {
+            return;
+        }
+        if (!isManaged(location)) {
+            // Written before the store existed: the file belongs to exactly one student
+            queueDeletion(location);
+            return;
+        }
+        String sha256 = location.substring(location.lastIndexOf('/') + 1);
+        blobTransaction.executeWithoutResult(status -> {
+            List<Integer> counts = jdbcTemplate.queryForList(
+                    "select ref_count from photo_blobs where sha256 = ? for update", Integer.class, sha256);
+            if (counts.isEmpty() || counts.get(0) < 1) {
+                return;
+            }
+            jdbcTemplate.update("update photo_blobs set ref_count = ref_count - 1 where sha256 = ?", sha256);
+            if (counts.get(0) == 1) {
+                queueDeletion(location);
+            }
+        });
+    }
+
+    /**
+     * Runs under the photo_blobs row lock, the same one {@link #commit} takes, so an upload of the
+     * same bytes either finds the file still in place or puts it back. A file with no row at all
+     * (an upload whose transaction failed after the move) gets a row at zero to lock first. The
+     * Students count is the truth: references the row missed are put back, and a count no student
+     * backs is a leak, reclaimed once its last reference is older than app.photos.gc.min-age
+     * (younger ones may be an upload whose student row is still being written).
+     */
+    @Override
+    public boolean reclaim(String location) {
+        if (!StringUtils.hasText(location)) {
+            return true;
+        }
+        try {
+            if (!isManaged(location)) {
+                Files.deleteIfExists(resolve(location));
+                return true;
+            }
+            String sha256 = location.substring(location.lastIndexOf('/') + 1);
+            Path file = root.resolve(location);
+            while (true) {
+                try {
+                    return Boolean.TRUE.equals(blobTransaction.execute(status -> reclaimLocked(sha256, location, file)));
+                } catch (DuplicateKeyException e) {
+                    // An upload of the same bytes created the row first; look again
+                }
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Unable to delete photograph " + location, e);
+        } catch (UncheckedIOException e) {
+            throw new FileStorageException("Unable to delete photograph " + location, e.getCause());
+        }
+    }
+
+    private boolean reclaimLocked(String sha256, String location, Path file) {
+        List<Blob> blobs = jdbcTemplate.query(
+                "select ref_count, referenced_at from photo_blobs where sha256 = ? for update",
+                (rs, rowNum) -> new Blob(rs.getInt("ref_count"), rs.getTimestamp("referenced_at")), sha256);
+        if (blobs.isEmpty()) {
+            if (!Files.exists(file)) {
+                return true;
+            }
+            jdbcTemplate.update("insert into photo_blobs (sha256, ref_count, size_bytes) values (?, 0, ?)",
+                    sha256, sizeOf(file));
+        }
+        Integer students = jdbcTemplate.queryForObject(
+                "select count(*) from Students where photograph_path = ?", Integer.class, location);
+        if (students != null && students > 0) {
+            if (blobs.isEmpty() || blobs.get(0).refCount() != students) {
+                jdbcTemplate.update("update photo_blobs set ref_count = ? where sha256 = ?", students, sha256);
+            }
+            return false;
+        }
+        if (!blobs.isEmpty() && blobs.get(0).inFlight(Instant.now().minus(referenceGrace))) {
+            return false;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        deleteDerivatives(sha256);
+        jdbcTemplate.update("delete from photo_blobs where sha256 = ?", sha256);
+        return true;
+    }
+
+    private void queueDeletion(String location) {
+        jdbcTemplate.update("insert into photo_deletions (location, attempts, next_attempt_at) values (?, 0, ?)",
+                location, Timestamp.from(Instant.now()));
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public Path resolve(String location) {
+        if (isManaged(location)) {
+            return root.resolve(location);
+        }
+        return Path.of(location).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public Path resolveDerivative(String sha256, String variant) {
+        return root.resolve(DERIVATIVES_DIRECTORY).resolve(variant).resolve(locationFor(sha256) + ".jpg");
+    }
+
+    @Override
+    public boolean isManaged(String location) {
+        return location != null && LOCATION.matcher(location).matches();
+    }
+
+    private void addReference(String sha256, long size) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated = jdbcTemplate.update(
+                "update photo_blobs set ref_count = ref_count + 1, referenced_at = ? where sha256 = ?", now, sha256);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "insert into photo_blobs (sha256, ref_count, size_bytes, referenced_at) values (?, 1, ?, ?)",
+                    sha256, size, now);
+        }
+    }
+
+    private static void moveIntoPlace(Path staged, Path target) {
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteDerivatives(String sha256) {
+        Path derivatives = root.resolve(DERIVATIVES_DIRECTORY);
+        if (!Files.isDirectory(derivatives)) {
+            return;
+        }
+        try (DirectoryStream<Path> variants = Files.newDirectoryStream(derivatives, Files::isDirectory)) {
+            for (Path variant : variants) {
+                deleteQuietly(resolveDerivative(sha256, variant.getFileName().toString()));
+            }
+        } catch (IOException ignored) {
+            // renditions left behind are only wasted space
+        }
+    }
+
+    private static String locationFor(String sha256) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    }
+
+    record Purged(int files, long bytes) {
+    }
+
+    record StoredFile(String location, long size, Instant lastModified) {
+    }
+
+    private record Blob(int refCount, Timestamp referencedAt) {
+
+        // A counted reference added after the cutoff may not have its student row yet
+        boolean inFlight(Instant cutoff) {
+            return refCount > 0 && referencedAt != null && referencedAt.toInstant().isAfter(cutoff);
+        }
+    }
+
+    static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // ignore failures while deleting old files
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.harsh.fullstackbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.harsh.fullstackbackend.config.BackgroundThreads;
+import jakarta.annotation.PreDestroy;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders fixed-size JPEG derivatives (thumb, medium) of stored photographs on a small bounded
+ * pool, off the request thread. Derivatives are keyed by the original's hash, so each distinct
+ * image is rendered once no matter how many students use it. When the queue is full the work is
+ * dropped; the next request for a missing derivative queues it again. Photographs ImageIO cannot
+ * decode are remembered by hash (their bytes never change), so they are not decoded again on
+ * every request for a rendition they will never have. That memo is kept per JVM, so each node
+ * learns it separately and it is lost on restart.
+ */
+@Component
+public class PhotoDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoDerivativeService.class);
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final int MAX_UNDECODABLE = 10_000;
+
+    public enum Size {
+        THUMB(96),
+        MEDIUM(480),
+        ORIGINAL(0);
+
+        private final int maxEdge;
+
+        Size(int maxEdge) {
+            this.maxEdge = maxEdge;
+        }
+
+        public String variant() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Size parse(String value) {
+            if (value == null || value.isBlank()) {
+                return ORIGINAL;
+            }
+            for (Size size : values()) {
+                if (size.variant().equalsIgnoreCase(value.trim())) {
+                    return size;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported photo size '%s', expected thumb, medium or original"
+                    .formatted(value));
+        }
+    }
+
+    private final PhotoStore photoStore;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> undecodable = Caffeine.newBuilder()
+            .maximumSize(MAX_UNDECODABLE)
+            .build();
+
+    /**
+     * Rendering is CPU-bound, so the pool stays bounded by app.photos.derivative-threads even
+     * when its threads are virtual.
+     */
+    public PhotoDerivativeService(PhotoStore photoStore, BackgroundThreads backgroundThreads,
+            @Value("${app.photos.derivative-threads:2}") int threads,
+            @Value("${app.photos.derivative-queue-capacity:200}") int queueCapacity) {
+        this.photoStore = photoStore;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), backgroundThreads.factory("photo-derivatives"));
+    }
+
+    /**
+     * The derivative file if it has been rendered already.
+     */
+    public Optional<Path> find(String sha256, Size size) {
+        Path derivative = photoStore.resolveDerivative(sha256, size.variant());
+        return Files.exists(derivative) ? Optional.of(derivative) : Optional.empty();
+    }
+
+    /**
+     * Queue rendering of every missing derivative of the photograph at location. Returns false
+     * when nothing was queued: already rendered or rendering, known undecodable, or queue full.
+     */
+    public boolean enqueue(String location, String sha256) {
+        if (isUndecodable(sha256)) {
+            return false;
+        }
+        if (find(sha256, Size.THUMB).isPresent() && find(sha256, Size.MEDIUM).isPresent()) {
+            return false;
+        }
+        if (!inFlight.add(sha256)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(location, sha256);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Unable to render derivatives of photograph {}", sha256, e);
+                } finally {
+                    inFlight.remove(sha256);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sha256);
+            log.debug("Derivative queue full, skipped photograph {}", sha256);
+            return false;
+        }
+    }
+
+    boolean isUndecodable(String sha256) {
+        return undecodable.getIfPresent(sha256) != null;
+    }
+
+    private void generate(String location, String sha256) throws IOException {
+        // Medium is decoded from the original; thumb is scaled down from medium
+        Path source = photoStore.resolve(location);
+        if (!Files.exists(source)) {
+            // Released since it was queued; not a property of the bytes, so nothing to remember
+            return;
+        }
+        BufferedImage medium;
+        try {
+            medium = read(source, Size.MEDIUM.maxEdge);
+        } catch (IOException | RuntimeException e) {
+            // Recognised as an image but corrupt, truncated or in an unsupported variant; readers
+            // report that with anything from IIOException to ArrayIndexOutOfBoundsException
+            medium = null;
+            log.debug("Unable to decode photograph {}: {}", sha256, e.toString());
+        }
+        if (medium == null) {
+            undecodable.put(sha256, Boolean.TRUE);
+            return;
+        }
+        medium = scale(medium, Size.MEDIUM.maxEdge);
+        write(medium, photoStore.resolveDerivative(sha256, Size.MEDIUM.variant()));
+        write(scale(medium, Size.THUMB.maxEdge), photoStore.resolveDerivative(sha256, Size.THUMB.variant()));
+    }
+
+    /**
+     * Decode with source subsampling, so a 12-megapixel original is never held in memory at full
+     * resolution just to end up a few hundred pixels wide. Returns null for non-images.
+     */
+    private static BufferedImage read(Path source, int maxEdge) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Keep at least twice the target resolution for a clean final scale
+                int step = Math.max(1, longestEdge / (maxEdge * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int maxEdge) {
+        double factor = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha; transparent PNG areas become white
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,242 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.config.BackgroundThreads;
+import com.harsh.fullstackbackend.dto.PhotoSweepReport;
+import com.harsh.fullstackbackend.exception.FileStorageException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mark-and-sweep for app.upload-dir, catching what the deletion queue never saw: files left by
+ * uploads that failed between the move and the insert, and staged uploads abandoned by a crash.
+ * The mark pass reads photograph_path from Students in keyset batches; the sweep then walks the
+ * store and reclaims each unreferenced file older than app.photos.gc.min-age through
+ * {@link PhotoStore#reclaim}, which re-checks under the blob lock, at no more than
+ * app.photos.gc.max-deletions-per-second. With app.photos.gc.dry-run=true nothing is deleted and
+ * the report only says what would be. Runs every app.photos.gc.interval on its own thread, so a
+ * long sweep never holds up the shared scheduler; PT0S turns the schedule off. On-demand dry runs
+ * ({@link #requestDryRun}) run on the same thread, and the latest report of any sweep is kept for
+ * {@link #lastReport}.
+ */
+@Component
+public class PhotoGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoGarbageCollector.class);
+    private static final int MARK_BATCH_SIZE = 1000;
+    private static final int SAMPLE_SIZE = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalPhotoStore photoStore;
+    private final ScheduledExecutorService scheduler;
+    private final Duration interval;
+    private final boolean dryRun;
+    private final Duration minAge;
+    private final long nanosPerDeletion;
+    private final Counter reclaimedFiles;
+    private final Counter reclaimedBytes;
+
+    // Not synchronized: the sweep does I/O and may run on a virtual thread
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private final AtomicBoolean dryRunRequested = new AtomicBoolean();
+    private volatile PhotoSweepReport lastReport;
+
+    public PhotoGarbageCollector(JdbcTemplate jdbcTemplate, LocalPhotoStore photoStore,
+            BackgroundThreads backgroundThreads, MeterRegistry meterRegistry,
+            @Value("${app.photos.gc.interval:PT6H}") Duration interval,
+            @Value("${app.photos.gc.dry-run:true}") boolean dryRun,
+            @Value("${app.photos.gc.min-age:PT1H}") Duration minAge,
+            @Value("${app.photos.gc.max-deletions-per-second:20}") int maxDeletionsPerSecond) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.photoStore = photoStore;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("photo-gc"));
+        this.interval = interval;
+        this.dryRun = dryRun;
+        this.minAge = minAge;
+        this.nanosPerDeletion = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxDeletionsPerSecond);
+        this.reclaimedFiles = Counter.builder("photos.gc.reclaimed")
+                .description("Unreferenced photograph files deleted by the garbage collector")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("photos.gc.reclaimed.bytes")
+                .description("Bytes freed by the photo garbage collector")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!interval.isZero()) {
+            scheduler.scheduleWithFixedDelay(this::scheduledSweep, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Queues a dry run on the collector's thread; a request while one is already queued is
+     * folded into it.
+     */
+    public void requestDryRun() {
+        if (dryRunRequested.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                dryRunRequested.set(false);
+                try {
+                    sweep(true);
+                } catch (RuntimeException e) {
+                    log.warn("Photo garbage collection dry run failed", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * The report of the most recent sweep, scheduled or requested, if any has finished.
+     */
+    public Optional<PhotoSweepReport> lastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    private void scheduledSweep() {
+        try {
+            PhotoSweepReport report = sweep(dryRun);
+            log.info("Photo garbage collection{}: {} files scanned, {} orphaned ({} bytes), {} reclaimed, "
+                            + "{} kept, {} failed, {} abandoned uploads, in {}",
+                    report.dryRun() ? " (dry run)" : "", report.filesScanned(), report.orphanedFiles(),
+                    report.orphanedBytes(), report.reclaimedFiles(), report.keptFiles(), report.failedFiles(),
+                    report.abandonedUploads(), report.took());
+        } catch (RuntimeException e) {
+            log.warn("Photo garbage collection failed", e);
+        }
+    }
+
+    public PhotoSweepReport sweep(boolean dryRun) {
+        sweepLock.lock();
+        try {
+            PhotoSweepReport report = sweepLocked(dryRun);
+            lastReport = report;
+            return report;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private PhotoSweepReport sweepLocked(boolean dryRun) {
+        Instant started = Instant.now();
+        // Anything written after this may belong to an upload still in flight
+        Instant cutoff = started.minus(minAge);
+        Set<String> referenced = referencedLocations();
+
+        int scanned = 0;
+        int orphaned = 0;
+        long orphanedBytes = 0;
+        int reclaimed = 0;
+        long freedBytes = 0;
+        int kept = 0;
+        int failed = 0;
+        List<String> sample = new ArrayList<>();
+        long nextDeletion = System.nanoTime();
+        try (Stream<LocalPhotoStore.StoredFile> files = photoStore.storedFiles()) {
+            Iterator<LocalPhotoStore.StoredFile> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                LocalPhotoStore.StoredFile file = iterator.next();
+                scanned++;
+                if (referenced.contains(file.location()) || file.lastModified().isAfter(cutoff)) {
+                    continue;
+                }
+                orphaned++;
+                orphanedBytes += file.size();
+                if (sample.size() < SAMPLE_SIZE) {
+                    sample.add(file.location());
+                }
+                if (dryRun) {
+                    continue;
+                }
+
+                long wait = nextDeletion - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                nextDeletion = Math.max(nextDeletion, System.nanoTime()) + nanosPerDeletion;
+                try {
+                    if (photoStore.reclaim(file.location())) {
+                        reclaimed++;
+                        freedBytes += file.size();
+                        reclaimedFiles.increment();
+                        reclaimedBytes.increment(file.size());
+                    } else {
+                        kept++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Unable to reclaim photograph {}: {}", file.location(), e.getMessage());
+                    failed++;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutting down; report what was done so far
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new FileStorageException("Unable to scan the upload directory", e);
+        } catch (UncheckedIOException e) {
+            throw new FileStorageException("Unable to scan the upload directory", e.getCause());
+        }
+
+        LocalPhotoStore.Purged abandoned = photoStore.purgeAbandonedStagedFiles(dryRun);
+        return new PhotoSweepReport(dryRun, started, Duration.between(started, Instant.now()), scanned,
+                referenced.size(), orphaned, orphanedBytes, reclaimed, freedBytes, kept, failed, abandoned.files(),
+                abandoned.bytes(), sample);
+    }
+
+    /**
+     * The mark pass: every store location a student points at, read a batch at a time.
+     */
+    private Set<String> referencedLocations() {
+        Set<String> referenced = new HashSet<>();
+        long afterId = 0;
+        while (true) {
+            List<StudentPhoto> batch = jdbcTemplate.query("""
+                    select student_id, photograph_path from Students
+                    where student_id > ? and photograph_path is not null
+                    order by student_id limit ?
+                    """, (rs, rowNum) -> new StudentPhoto(rs.getLong("student_id"), rs.getString("photograph_path")),
+                    afterId, MARK_BATCH_SIZE);
+            for (StudentPhoto photo : batch) {
+                afterId = photo.studentId();
+                if (photoStore.isManaged(photo.path())) {
+                    referenced.add(photo.path());
+                }
+            }
+            if (batch.size() < MARK_BATCH_SIZE) {
+                return referenced;
+            }
+        }
+    }
+
+    private record StudentPhoto(long studentId, String path) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.harsh.fullstackbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes the photograph files queued in photo_deletions by {@link PhotoStore#release}, off the
+ * request path. A failed delete stays queued and is retried with exponential backoff (30s
+ * doubling up to an hour), so a file that cannot be removed today is not forgotten. Outcomes
+ * are counted as {@code photos.deletions} tagged deleted, kept (referenced again) or failed.
+ */
+@Component
+public class PhotoJanitor {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoJanitor.class);
+    private static final int BATCH_SIZE = 100;
+    private static final Duration FIRST_RETRY = Duration.ofSeconds(30);
+    private static final Duration MAX_RETRY = Duration.ofHours(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PhotoStore photoStore;
+    private final Counter deleted;
+    private final Counter kept;
+    private final Counter failed;
+
+    public PhotoJanitor(JdbcTemplate jdbcTemplate, PhotoStore photoStore, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.photoStore = photoStore;
+        this.deleted = deletions(meterRegistry, "deleted");
+        this.kept = deletions(meterRegistry, "kept");
+        this.failed = deletions(meterRegistry, "failed");
+    }
+
+    private static Counter deletions(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("photos.deletions")
+                .description("Queued photograph deletions worked off by the janitor")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Works off every deletion that is due and returns how many files were removed.
+     */
+    @Scheduled(fixedDelayString = "${app.photos.janitor.interval:PT30S}")
+    public int drain() {
+        Instant now = Instant.now();
+        int removed = 0;
+        long afterId = 0;
+        while (true) {
+            List<QueuedDeletion> due = jdbcTemplate.query("""
+                    select id, location, attempts from photo_deletions
+                    where next_attempt_at <= ? and id > ?
+                    order by id limit ?
+                    """, (rs, rowNum) -> new QueuedDeletion(rs.getLong("id"), rs.getString("location"),
+                    rs.getInt("attempts")), Timestamp.from(now), afterId, BATCH_SIZE);
+            for (QueuedDeletion deletion : due) {
+                afterId = deletion.id();
+                if (process(deletion)) {
+                    removed++;
+                }
+            }
+            if (due.size() < BATCH_SIZE) {
+                return removed;
+            }
+        }
+    }
+
+    private boolean process(QueuedDeletion deletion) {
+        try {
+            boolean reclaimed = photoStore.reclaim(deletion.location());
+            jdbcTemplate.update("delete from photo_deletions where id = ?", deletion.id());
+            (reclaimed ? deleted : kept).increment();
+            return reclaimed;
+        } catch (RuntimeException e) {
+            int attempts = deletion.attempts() + 1;
+            Duration delay = retryDelay(attempts);
+            log.warn("Unable to delete photograph {} (attempt {}), retrying in {}: {}", deletion.location(), attempts,
+                    delay, e.getMessage());
+            String error = String.valueOf(e.getCause() != null ? e.getCause() : e);
+            jdbcTemplate.update("""
+                    update photo_deletions set attempts = ?, next_attempt_at = ?, last_error = ?
+                    where id = ?
+                    """, attempts, Timestamp.from(Instant.now().plus(delay)),
+                    error.substring(0, Math.min(500, error.length())), deletion.id());
+            failed.increment();
+            return false;
+        }
+    }
+
+    static Duration retryDelay(int attempts) {
+        // 30s, 1m, 2m, ... capped; the shift is bounded so it cannot overflow
+        Duration delay = FIRST_RETRY.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_RETRY) > 0 ? MAX_RETRY : delay;
+    }
+
+    private record QueuedDeletion(long id, String location, int attempts) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.harsh.fullstackbackend.service;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where photograph bytes live. Students keep the returned location in photograph_path; every
+ * {@link #commit} (or {@link #store}) takes a reference that a later {@link #release} gives back.
+ * Writing is split in two so the slow part, copying the upload, happens before any database
+ * transaction opens: {@link #stage} only touches the file system, and {@link #commit} is a short
+ * rename once the row referencing the photograph has been committed.
+ */
+public interface PhotoStore {
+
+    /**
+     * Copy the bytes to a temp file and hash them. Nothing is visible until {@link #commit}.
+     */
+    StagedPhoto stage(InputStream content);
+
+    /**
+     * Move a staged file into place (or reuse an identical copy already stored) and take a
+     * reference on it.
+     */
+    StoredBlob commit(StagedPhoto staged);
+
+    /**
+     * Delete a staged file that will not be committed. Safe to call after {@link #commit}.
+     */
+    void discard(StagedPhoto staged);
+
+    /**
+     * Stage and commit in one go, for callers with no transaction to wait for.
+     */
+    default StoredBlob store(InputStream content) {
+        StagedPhoto staged = stage(content);
+        try {
+            return commit(staged);
+        } finally {
+            discard(staged);
+        }
+    }
+
+    /**
+     * Drop one reference. Once nothing refers to the bytes they are queued for deletion, which
+     * {@link PhotoJanitor} carries out in the background.
+     */
+    void release(String location);
+
+    /**
+     * Delete the file behind a location, with its renditions, unless something refers to it
+     * (again). Returns false when the file was kept. A failed delete is thrown so the caller can
+     * retry.
+     */
+    boolean reclaim(String location);
+
+    /**
+     * The file behind a location, including pre-store absolute paths.
+     */
+    Path resolve(String location);
+
+    /**
+     * Where a rendition derived from the given content (e.g. a thumbnail) is kept. Renditions are
+     * removed together with the content they were made from.
+     */
+    Path resolveDerivative(String sha256, String variant);
+
+    /**
+     * Whether the location was issued by this store rather than being a legacy path.
+     */
+    boolean isManaged(String location);
+
+    record StagedPhoto(Path file, String location, String sha256, long size) {
+    }
+
+    record StoredBlob(String location, String sha256, long size) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.exception.FileStorageException;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves photographs saved as flat {@code <roll>_<uuid>.<ext>} files into the photo store. Runs at
+ * startup when app.photos.migrate-on-startup=true; it is idempotent, so an interrupted run can
+ * simply be repeated. Each student is repointed before its old file is deleted.
+ */
+@Component
+public class PhotoStoreMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoStoreMigration.class);
+    private static final int PAGE_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentRepository studentRepository;
+    private final PhotoStore photoStore;
+
+    @Value("${app.photos.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    public PhotoStoreMigration(JdbcTemplate jdbcTemplate, StudentRepository studentRepository,
+            PhotoStore photoStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.studentRepository = studentRepository;
+        this.photoStore = photoStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            Result result = migrate();
+            log.info("Photo store migration finished: {} migrated, {} missing, {} failed",
+                    result.migrated(), result.missing(), result.failed());
+        }
+    }
+
+    public Result migrate() {
+        int migrated = 0;
+        int missing = 0;
+        int failed = 0;
+        long afterId = 0;
+        while (true) {
+            List<LegacyPhoto> page = jdbcTemplate.query("""
+                    select student_id, photograph_path, photograph_content_type from Students
+                    where student_id > ? and photograph_path is not null
+                    order by student_id limit ?
+                    """, (rs, rowNum) -> new LegacyPhoto(rs.getLong("student_id"), rs.getString("photograph_path"),
+                    rs.getString("photograph_content_type")), afterId, PAGE_SIZE);
+            if (page.isEmpty()) {
+                return new Result(migrated, missing, failed);
+            }
+            for (LegacyPhoto photo : page) {
+                afterId = photo.studentId();
+                if (photoStore.isManaged(photo.path())) {
+                    continue;
+                }
+                Path file = photoStore.resolve(photo.path());
+                if (!Files.isRegularFile(file)) {
+                    log.warn("Photograph {} for student {} not found, left as is", file, photo.studentId());
+                    missing++;
+                    continue;
+                }
+                try {
+                    PhotoStore.StoredBlob blob;
+                    try (InputStream content = Files.newInputStream(file)) {
+                        blob = photoStore.store(content);
+                    }
+                    String contentType = photo.contentType() != null
+                            ? photo.contentType()
+                            : StudentService.resolveContentType(null, file.getFileName().toString());
+                    studentRepository.updatePhotograph(photo.studentId(), blob.location(), contentType, blob.sha256());
+                    Files.deleteIfExists(file);
+                    migrated++;
+                } catch (IOException | FileStorageException e) {
+                    log.warn("Unable to migrate photograph {} for student {}", file, photo.studentId(), e);
+                    failed++;
+                }
+            }
+        }
+    }
+
+    public record Result(int migrated, int missing, int failed) {
+    }
+
+    private record LegacyPhoto(long studentId, String path, String contentType) {
+    }
+}
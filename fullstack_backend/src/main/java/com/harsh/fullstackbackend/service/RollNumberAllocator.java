@@ -0,0 +1,230 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * Hands out roll numbers (prefix + zero-padded sequence, e.g. MT25007) without touching the
+ * Students table on the hot path. Each node reserves a block of sequence values per prefix from
+ * roll_number_sequences with one conditional update in its own short transaction, then serves
+ * the block from an in-memory counter. Numbers are unique across nodes; a node that stops
+ * leaves the unused rest of its block as a gap.
+ */
+@Component
+public class RollNumberAllocator {
+
+    private static final int PREFIX_LENGTH = 2;
+    private static final int SEQUENCE_LENGTH = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentRepository studentRepository;
+    private final TransactionTemplate reservationTransaction;
+    private final int blockSize;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    // Locks rather than monitors: a virtual thread blocked on JDBC inside synchronized pins its carrier
+    private final Map<String, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
+
+    public RollNumberAllocator(JdbcTemplate jdbcTemplate,
+            StudentRepository studentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.roll-numbers.block-size:20}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.studentRepository = studentRepository;
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Next roll number for the domain's prefix.
+     */
+    public String next(Domain domain) {
+        String prefix = prefixFor(domain);
+        return prefix + formatSequence(nextSequence(prefix));
+    }
+
+    /**
+     * A run of consecutive roll numbers for a prefix, reserved in a single round trip.
+     */
+    public List<String> next(String prefix, int count) {
+        int start = reserve(prefix, count);
+        List<String> rollNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rollNumbers.add(prefix + formatSequence(start + i));
+        }
+        return rollNumbers;
+    }
+
+    public String prefixFor(Domain domain) {
+        return determineDomainPrefix(domain) + extractBatchSuffix(domain.getBatch());
+    }
+
+    private int nextSequence(String prefix) {
+        while (true) {
+            Block block = blocks.get(prefix);
+            if (block != null) {
+                int value = block.next.getAndIncrement();
+                if (value < block.limit) {
+                    return value;
+                }
+            }
+            ReentrantLock refillLock = refillLocks.computeIfAbsent(prefix, key -> new ReentrantLock());
+            refillLock.lock();
+            try {
+                // Another thread may have refilled while we waited
+                if (blocks.get(prefix) == block) {
+                    int start = reserve(prefix, blockSize);
+                    blocks.put(prefix, new Block(start, start + blockSize));
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reserve [start, start + size) for the prefix and return start. The row lock taken by the
+     * update serializes reservations across nodes for just this statement's transaction.
+     */
+    private int reserve(String prefix, int size) {
+        while (true) {
+            Integer start = reservationTransaction.execute(status -> {
+                int updated = jdbcTemplate.update(
+                        "update roll_number_sequences set next_value = next_value + ? where prefix = ?", size, prefix);
+                if (updated == 0) {
+                    return null;
+                }
+                Integer next = jdbcTemplate.queryForObject(
+                        "select next_value from roll_number_sequences where prefix = ?", Integer.class, prefix);
+                return next - size;
+            });
+            if (start != null) {
+                return start;
+            }
+            try {
+                int first = highestExistingSequence(prefix) + 1;
+                reservationTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                        "insert into roll_number_sequences (prefix, next_value) values (?, ?)", prefix, first + size));
+                return first;
+            } catch (DuplicateKeyException e) {
+                // Another node seeded the prefix first; reserve from its row
+            }
+        }
+    }
+
+    /**
+     * Highest sequence already used for the prefix, so a new sequence row continues after
+     * numbers assigned before the table existed.
+     */
+    private int highestExistingSequence(String prefix) {
+        return studentRepository.findTopByRollNumberStartingWithOrderByRollNumberDesc(prefix)
+                .map(Student::getRollNumber)
+                .map(rollNumber -> {
+                    try {
+                        return Integer.parseInt(rollNumber.substring(prefix.length()));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                })
+                .orElse(0);
+    }
+
+    private static String determineDomainPrefix(Domain domain) {
+        if (domain == null) {
+            return "XX";
+        }
+        String fromQualification = normalizePrefix(domain.getQualification());
+        if (StringUtils.hasText(fromQualification)) {
+            return fromQualification;
+        }
+        String fromProgram = normalizePrefix(domain.getProgram());
+        if (StringUtils.hasText(fromProgram)) {
+            return fromProgram;
+        }
+        return "XX";
+    }
+
+    /**
+     * First two letters of source, upper-cased and padded with X; null when it has no letters.
+     * Called for every registration, so it scans characters instead of compiling a regex.
+     */
+    static String normalizePrefix(String source) {
+        if (source == null) {
+            return null;
+        }
+        char[] prefix = new char[PREFIX_LENGTH];
+        int letters = 0;
+        for (int i = 0; i < source.length() && letters < PREFIX_LENGTH; i++) {
+            char c = source.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+                prefix[letters++] = Character.toUpperCase(c);
+            }
+        }
+        if (letters == 0) {
+            return null;
+        }
+        while (letters < PREFIX_LENGTH) {
+            prefix[letters++] = 'X';
+        }
+        return new String(prefix);
+    }
+
+    /**
+     * Last two digits of the batch, or of the current year when the batch has none.
+     */
+    static String extractBatchSuffix(String batch) {
+        if (batch != null) {
+            int last = -1;
+            int previous = -1;
+            for (int i = 0; i < batch.length(); i++) {
+                char c = batch.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    previous = last;
+                    last = i;
+                }
+            }
+            if (last >= 0) {
+                return new String(new char[] {previous >= 0 ? batch.charAt(previous) : '0', batch.charAt(last)});
+            }
+        }
+        return String.valueOf(Year.now().getValue()).substring(2);
+    }
+
+    /**
+     * Zero-padded to SEQUENCE_LENGTH digits; longer sequences are kept whole.
+     */
+    static String formatSequence(int sequence) {
+        String digits = Integer.toString(sequence);
+        if (digits.length() >= SEQUENCE_LENGTH) {
+            return digits;
+        }
+        return "0".repeat(SEQUENCE_LENGTH - digits.length()) + digits;
+    }
+
+    private static final class Block {
+        private final AtomicInteger next;
+        private final int limit;
+
+        private Block(int start, int limit) {
+            this.next = new AtomicInteger(start);
+            this.limit = limit;
+        }
+    }
+}
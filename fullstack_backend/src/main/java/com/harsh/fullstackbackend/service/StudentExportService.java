@@ -0,0 +1,159 @@
+package com.harsh.fullstackbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.repository.StudentJdbcRepository;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes the student registry to an output stream row by row, so memory use does not depend on
+ * the number of students.
+ */
+@Service
+public class StudentExportService {
+
+    private static final String CSV_HEADER = "id,rollNumber,firstName,lastName,email,photographPath,photographVersion,"
+            + "cgpa,totalCredits,graduationYear,specialisationId,placementId,domainId,domainProgram,domainBatch";
+
+    private final StudentJdbcRepository studentJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    public StudentExportService(StudentJdbcRepository studentJdbcRepository, ObjectMapper objectMapper) {
+        this.studentJdbcRepository = studentJdbcRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format '%s', expected ndjson or csv".formatted(value));
+        }
+    }
+
+    public void export(Format format, OutputStream out) throws IOException {
+        try {
+            if (format == Format.NDJSON) {
+                writeNdjson(out);
+            } else {
+                writeCsv(out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeNdjson(OutputStream out) throws IOException {
+        boolean[] wroteRows = {false};
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(new NonClosingOutputStream(out))) {
+            studentJdbcRepository.streamAll(student -> {
+                try {
+                    writer.write(student);
+                    wroteRows[0] = true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        if (wroteRows[0]) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        studentJdbcRepository.streamAll(student -> {
+            try {
+                writeCsvRow(writer, student);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, StudentResponse student) throws IOException {
+        Object[] values = {
+                student.id(), student.rollNumber(), student.firstName(), student.lastName(), student.email(),
+                student.photographPath(), student.photographVersion(), student.cgpa(), student.totalCredits(),
+                student.graduationYear(), student.specialisationId(), student.placementId(), student.domainId(),
+                student.domainProgram(), student.domainBatch()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String csvField(String value) {
+        boolean needsQuoting = false;
+        for (int i = 0; i < value.length() && !needsQuoting; i++) {
+            char c = value.charAt(i);
+            needsQuoting = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needsQuoting ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    /**
+     * Lets the JSON sequence writer be closed (to flush its buffer) without closing the response stream.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package com.harsh.fullstackbackend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.BulkImportResult;
+import com.harsh.fullstackbackend.dto.StudentRequest;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.exception.FileStorageException;
+import com.harsh.fullstackbackend.exception.ResourceNotFoundException;
+import com.harsh.fullstackbackend.repository.StudentJdbcRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Registers many students from a CSV/NDJSON manifest plus a ZIP of photographs. All rows are
+ * validated up front, registered emails are checked with one query per chunk, seats are taken
+ * once per domain, roll numbers are allocated once per prefix, and rows are inserted with JDBC
+ * batching. Rows that fail are reported individually without aborting the rest of the import.
+ * Imported rows are read back by roll number, a chunk at a time, to add them to the search index
+ * and domain statistics. Photographs must pass the same {@link ImageTypes} check as a single
+ * upload.
+ */
+@Service
+public class StudentImportService {
+
+    private static final int EMAIL_LOOKUP_CHUNK = 1000;
+    private static final int INSERT_CHUNK = 500;
+    private static final String PHOTOGRAPH_FIELD = "photograph";
+
+    private final StudentService studentService;
+    private final RollNumberAllocator rollNumberAllocator;
+    private final DomainService domainService;
+    private final StudentRepository studentRepository;
+    private final StudentJdbcRepository studentJdbcRepository;
+    private final StudentSearchIndex studentSearchIndex;
+    private final DomainStatistics domainStatistics;
+    private final DomainAdmission domainAdmission;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.import.max-rows:5000}")
+    private int maxRows;
+
+    @Value("${app.import.max-photo-bytes:10485760}")
+    private long maxPhotoBytes;
+
+    public StudentImportService(StudentService studentService,
+            RollNumberAllocator rollNumberAllocator,
+            DomainService domainService,
+            StudentRepository studentRepository,
+            StudentJdbcRepository studentJdbcRepository,
+            StudentSearchIndex studentSearchIndex,
+            DomainStatistics domainStatistics,
+            DomainAdmission domainAdmission,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.studentService = studentService;
+        this.rollNumberAllocator = rollNumberAllocator;
+        this.domainService = domainService;
+        this.studentRepository = studentRepository;
+        this.studentJdbcRepository = studentJdbcRepository;
+        this.studentSearchIndex = studentSearchIndex;
+        this.domainStatistics = domainStatistics;
+        this.domainAdmission = domainAdmission;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkImportResult importStudents(MultipartFile manifest, MultipartFile photographs) {
+        if (manifest == null || manifest.isEmpty()) {
+            throw new IllegalArgumentException("Manifest is required and cannot be empty");
+        }
+        if (photographs == null || photographs.isEmpty()) {
+            throw new IllegalArgumentException("Photographs archive is required and cannot be empty");
+        }
+
+        Map<Integer, String> errors = new TreeMap<>();
+        List<ManifestRow> rows = parseManifest(manifest, errors);
+        int received = rows.size() + errors.size();
+        if (received > maxRows) {
+            throw new IllegalArgumentException("Manifest has %d rows, the maximum is %d".formatted(received, maxRows));
+        }
+
+        rows = validateRows(rows, errors);
+        rows = rejectRegisteredEmails(rows, errors);
+        Map<Long, Domain> domains = resolveDomains(rows, errors);
+        rows = rows.stream().filter(row -> domains.containsKey(row.request().domainId())).toList();
+        Map<Long, Integer> seats = new HashMap<>();
+        rows = admit(rows, domains, seats, errors);
+
+        List<BulkImportResult.ImportedStudent> imported = new ArrayList<>();
+        Path archive = null;
+        try {
+            archive = Files.createTempFile("student-import-", ".zip");
+            photographs.transferTo(archive);
+            try (ZipFile zip = new ZipFile(archive.toFile())) {
+                Map<String, ZipEntry> entries = indexEntries(zip);
+                rows = rows.stream().filter(row -> {
+                    if (!entries.containsKey(StringUtils.getFilename(row.photograph()))) {
+                        errors.put(row.row(), "Photograph '%s' not found in archive".formatted(row.photograph()));
+                        return false;
+                    }
+                    return true;
+                }).toList();
+
+                List<PendingStudent> pending = allocateAndStore(rows, domains, zip, entries, errors);
+                insert(pending, imported, errors);
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Unable to read photographs archive", e);
+        } finally {
+            deleteQuietly(archive);
+            releaseUnusedSeats(rows, seats, imported);
+        }
+        for (int start = 0; start < imported.size(); start += INSERT_CHUNK) {
+            List<StudentResponse> inserted = studentRepository.findResponsesByRollNumberIn(
+                    imported.subList(start, Math.min(start + INSERT_CHUNK, imported.size())).stream()
+                            .map(BulkImportResult.ImportedStudent::rollNumber).toList());
+            studentSearchIndex.putAll(inserted);
+            domainStatistics.recordAll(inserted);
+        }
+
+        List<BulkImportResult.RowError> rowErrors = errors.entrySet().stream()
+                .map(entry -> new BulkImportResult.RowError(entry.getKey(), entry.getValue()))
+                .toList();
+        return new BulkImportResult(received, imported, rowErrors);
+    }
+
+    private List<ManifestRow> parseManifest(MultipartFile manifest, Map<Integer, String> errors) {
+        String filename = manifest.getOriginalFilename() == null ? "" : manifest.getOriginalFilename().toLowerCase(Locale.ROOT);
+        String contentType = manifest.getContentType() == null ? "" : manifest.getContentType();
+        boolean csv = filename.endsWith(".csv") || contentType.startsWith("text/csv");
+        try (Reader reader = new BufferedReader(new InputStreamReader(manifest.getInputStream(), StandardCharsets.UTF_8))) {
+            return csv ? parseCsv(reader, errors) : parseNdjson((BufferedReader) reader, errors);
+        } catch (IOException e) {
+            throw new FileStorageException("Unable to read manifest", e);
+        }
+    }
+
+    private List<ManifestRow> parseNdjson(BufferedReader reader, Map<Integer, String> errors) throws IOException {
+        List<ManifestRow> rows = new ArrayList<>();
+        int rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!(node instanceof ObjectNode object)) {
+                    errors.put(rowNumber, "Row is not a JSON object");
+                    continue;
+                }
+                JsonNode photograph = object.remove(PHOTOGRAPH_FIELD);
+                rows.add(new ManifestRow(rowNumber, objectMapper.treeToValue(object, StudentRequest.class),
+                        photograph == null || photograph.isNull() ? null : photograph.asText()));
+            } catch (IOException | IllegalArgumentException e) {
+                errors.put(rowNumber, "Invalid JSON: " + e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    private List<ManifestRow> parseCsv(Reader reader, Map<Integer, String> errors) throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return List.of();
+        }
+
+        List<ManifestRow> rows = new ArrayList<>();
+        int rowNumber = 0;
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                if (StringUtils.hasText(record.get(i))) {
+                    values.put(header.get(i).trim(), record.get(i).trim());
+                }
+            }
+            String photograph = values.remove(PHOTOGRAPH_FIELD);
+            try {
+                rows.add(new ManifestRow(rowNumber, objectMapper.convertValue(values, StudentRequest.class), photograph));
+            } catch (IllegalArgumentException e) {
+                errors.put(rowNumber, "Invalid values: " + e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Read one RFC 4180 record; returns null at end of input.
+     */
+    private static List<String> readCsvRecord(Reader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private List<ManifestRow> validateRows(List<ManifestRow> rows, Map<Integer, String> errors) {
+        Set<String> seenEmails = new HashSet<>();
+        List<ManifestRow> valid = new ArrayList<>();
+        for (ManifestRow row : rows) {
+            try {
+                StudentService.validateStudentRequest(row.request());
+            } catch (IllegalArgumentException e) {
+                errors.put(row.row(), e.getMessage());
+                continue;
+            }
+            if (!StringUtils.hasText(row.photograph())) {
+                errors.put(row.row(), "Photograph is required");
+                continue;
+            }
+            if (!seenEmails.add(row.request().email().toLowerCase(Locale.ROOT))) {
+                errors.put(row.row(), "Email appears more than once in the manifest");
+                continue;
+            }
+            valid.add(row);
+        }
+        return valid;
+    }
+
+    private List<ManifestRow> rejectRegisteredEmails(List<ManifestRow> rows, Map<Integer, String> errors) {
+        Set<String> registered = new HashSet<>();
+        for (int start = 0; start < rows.size(); start += EMAIL_LOOKUP_CHUNK) {
+            List<String> emails = rows.subList(start, Math.min(start + EMAIL_LOOKUP_CHUNK, rows.size())).stream()
+                    .map(row -> row.request().email())
+                    .toList();
+            studentRepository.findExistingEmails(emails)
+                    .forEach(email -> registered.add(email.toLowerCase(Locale.ROOT)));
+        }
+        return rows.stream().filter(row -> {
+            if (registered.contains(row.request().email().toLowerCase(Locale.ROOT))) {
+                errors.put(row.row(), "Email already registered");
+                return false;
+            }
+            return true;
+        }).toList();
+    }
+
+    private Map<Long, Domain> resolveDomains(List<ManifestRow> rows, Map<Integer, String> errors) {
+        Map<Long, Domain> domains = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (ManifestRow row : rows) {
+            Long domainId = row.request().domainId();
+            if (!domains.containsKey(domainId) && !missing.contains(domainId)) {
+                try {
+                    domains.put(domainId, domainService.getDomainById(domainId));
+                } catch (ResourceNotFoundException e) {
+                    missing.add(domainId);
+                }
+            }
+            if (missing.contains(domainId)) {
+                errors.put(row.row(), "Domain %d not found".formatted(domainId));
+            }
+        }
+        return domains;
+    }
+
+    /**
+     * Takes the seats for each domain's rows in one reservation; rows beyond what the domain has
+     * left are refused in manifest order. seats receives what was taken per domain.
+     */
+    private List<ManifestRow> admit(List<ManifestRow> rows, Map<Long, Domain> domains, Map<Long, Integer> seats,
+            Map<Integer, String> errors) {
+        Map<Long, List<ManifestRow>> rowsByDomain = new LinkedHashMap<>();
+        for (ManifestRow row : rows) {
+            rowsByDomain.computeIfAbsent(row.request().domainId(), key -> new ArrayList<>()).add(row);
+        }
+        Set<Integer> refused = new HashSet<>();
+        rowsByDomain.forEach((domainId, domainRows) -> {
+            int granted = domainAdmission.admit(domains.get(domainId), domainRows.size());
+            seats.put(domainId, granted);
+            for (ManifestRow row : domainRows.subList(granted, domainRows.size())) {
+                errors.put(row.row(), "Domain %d is full".formatted(domainId));
+                refused.add(row.row());
+            }
+        });
+        return rows.stream().filter(row -> !refused.contains(row.row())).toList();
+    }
+
+    /**
+     * Gives back the seats of admitted rows that were not imported.
+     */
+    private void releaseUnusedSeats(List<ManifestRow> rows, Map<Long, Integer> seats,
+            List<BulkImportResult.ImportedStudent> imported) {
+        Map<Integer, Long> domainByRow = new HashMap<>();
+        rows.forEach(row -> domainByRow.put(row.row(), row.request().domainId()));
+        Map<Long, Integer> unused = new HashMap<>(seats);
+        imported.forEach(student -> unused.merge(domainByRow.get(student.row()), -1, Integer::sum));
+        unused.forEach(domainAdmission::release);
+    }
+
+    /**
+     * Index archive entries by file name, so manifests may name photographs with or without folders.
+     */
+    private static Map<String, ZipEntry> indexEntries(ZipFile zip) {
+        Map<String, ZipEntry> entries = new HashMap<>();
+        zip.stream()
+                .filter(entry -> !entry.isDirectory())
+                .forEach(entry -> entries.put(StringUtils.getFilename(entry.getName()), entry));
+        return entries;
+    }
+
+    private List<PendingStudent> allocateAndStore(List<ManifestRow> rows, Map<Long, Domain> domains, ZipFile zip,
+            Map<String, ZipEntry> entries, Map<Integer, String> errors) {
+        Map<String, List<ManifestRow>> rowsByPrefix = new LinkedHashMap<>();
+        for (ManifestRow row : rows) {
+            String prefix = rollNumberAllocator.prefixFor(domains.get(row.request().domainId()));
+            rowsByPrefix.computeIfAbsent(prefix, key -> new ArrayList<>()).add(row);
+        }
+
+        List<PendingStudent> pending = new ArrayList<>();
+        rowsByPrefix.forEach((prefix, prefixRows) -> {
+            List<String> rollNumbers = rollNumberAllocator.next(prefix, prefixRows.size());
+            for (int i = 0; i < prefixRows.size(); i++) {
+                ManifestRow row = prefixRows.get(i);
+                String rollNumber = rollNumbers.get(i);
+                try (PushbackInputStream content = new PushbackInputStream(new LimitedInputStream(
+                        zip.getInputStream(entries.get(StringUtils.getFilename(row.photograph()))), maxPhotoBytes),
+                        ImageTypes.SIGNATURE_BYTES)) {
+                    // Checked like a single upload, and the recognised type wins over the file name
+                    byte[] header = content.readNBytes(ImageTypes.SIGNATURE_BYTES);
+                    String contentType = ImageTypes.sniff(header);
+                    if (contentType == null) {
+                        errors.put(row.row(), ImageTypes.UNSUPPORTED_MESSAGE);
+                        continue;
+                    }
+                    content.unread(header);
+                    StudentService.StoredPhotograph photograph =
+                            studentService.storePhotograph(content, row.photograph(), contentType);
+                    pending.add(new PendingStudent(row.row(),
+                            toStudent(row.request(), domains.get(row.request().domainId()), rollNumber, photograph)));
+                } catch (IOException | FileStorageException e) {
+                    errors.put(row.row(), "Unable to store photograph: " + e.getMessage());
+                }
+            }
+        });
+        return pending;
+    }
+
+    private void insert(List<PendingStudent> pending, List<BulkImportResult.ImportedStudent> imported,
+            Map<Integer, String> errors) {
+        for (int start = 0; start < pending.size(); start += INSERT_CHUNK) {
+            List<PendingStudent> chunk = pending.subList(start, Math.min(start + INSERT_CHUNK, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        studentJdbcRepository.insertAll(chunk.stream().map(PendingStudent::student).toList()));
+                chunk.forEach(student -> imported.add(imported(student)));
+            } catch (DataAccessException batchFailure) {
+                // Retry the chunk row by row so a single conflicting row does not sink its neighbours
+                for (PendingStudent student : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                studentJdbcRepository.insertAll(List.of(student.student())));
+                        imported.add(imported(student));
+                    } catch (DataAccessException e) {
+                        errors.put(student.row(), "Unable to save student: " + e.getMostSpecificCause().getMessage());
+                        studentService.deletePhotographFile(student.student().getPhotographPath());
+                    }
+                }
+            }
+        }
+    }
+
+    private static BulkImportResult.ImportedStudent imported(PendingStudent pending) {
+        return new BulkImportResult.ImportedStudent(pending.row(), pending.student().getRollNumber(),
+                pending.student().getEmail());
+    }
+
+    private static Student toStudent(StudentRequest request, Domain domain, String rollNumber,
+            StudentService.StoredPhotograph photograph) {
+        Student student = new Student();
+        student.setFirstName(request.firstName());
+        student.setLastName(request.lastName());
+        student.setEmail(request.email());
+        student.setCgpa(request.cgpa());
+        student.setTotalCredits(request.totalCredits());
+        student.setGraduationYear(request.graduationYear());
+        student.setDomain(domain);
+        student.setSpecialisationId(request.specialisationId());
+        student.setPlacementId(request.placementId());
+        student.setRollNumber(rollNumber);
+        photograph.applyTo(student);
+        return student;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // temp file, cleaned up by the OS eventually
+        }
+    }
+
+    private record ManifestRow(int row, StudentRequest request, String photograph) {
+    }
+
+    private record PendingStudent(int row, Student student) {
+    }
+
+    /**
+     * Fails the copy once more than the allowed number of bytes has been read, so an oversized
+     * or maliciously compressed archive entry cannot fill the disk.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(long read) throws IOException {
+            count += read;
+            if (count > limit) {
+                throw new IOException("photograph exceeds %d bytes".formatted(limit));
+            }
+        }
+    }
+}
@@ -0,0 +1,422 @@
+package com.harsh.fullstackbackend.service;
+
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory search over first name, last name, email and roll number. Roll numbers and whole
+ * words (name parts, the email and its local part) sit in sorted maps, so a prefix is one range
+ * scan; trigrams of every field find substrings, checked against the field before they count.
+ * Every query term must match; matches rank exact roll number, then exact word, roll number
+ * prefix, word prefix and finally substring.
+ *
+ * Built at startup and kept current by StudentService and StudentImportService after each
+ * commit. Writes made directly in the database or on another node are picked up by the full
+ * rebuild every app.students.search.rebuild-interval. Size is published as the
+ * {@code students.search.index.documents} and {@code students.search.index.bytes} gauges.
+ */
+@Component
+public class StudentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSearchIndex.class);
+
+    private static final int GRAM = 3;
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Name parts: "Mary-Jane O'Neil" is indexed under mary, jane, o and neil
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[\\s\\-'.]+");
+
+    static final int ROLL_NUMBER_EXACT = 100;
+    static final int WORD_EXACT = 80;
+    static final int ROLL_NUMBER_PREFIX = 60;
+    static final int WORD_PREFIX = 40;
+    static final int SUBSTRING = 20;
+
+    private final StudentRepository studentRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Guarded by lock
+    private Index index = new Index();
+    // Changes made while a rebuild is loading, replayed onto the new index before it is swapped in
+    private List<Consumer<Index>> changesDuringRebuild;
+
+    public StudentSearchIndex(StudentRepository studentRepository, MeterRegistry meterRegistry) {
+        this.studentRepository = studentRepository;
+        Gauge.builder("students.search.index.documents", this, search -> search.stats().documents())
+                .description("Students in the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("students.search.index.bytes", this, search -> search.stats().estimatedBytes())
+                .description("Estimated heap held by the in-memory search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void build() {
+        long started = System.nanoTime();
+        Stats stats = rebuild();
+        log.info("Indexed {} students for search in {} ms (~{} KiB)", stats.documents(),
+                (System.nanoTime() - started) / 1_000_000, stats.estimatedBytes() / 1024);
+    }
+
+    @Scheduled(initialDelayString = "${app.students.search.rebuild-interval:PT10M}",
+            fixedDelayString = "${app.students.search.rebuild-interval:PT10M}")
+    void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reload every student from the database. Searches keep using the old index until the new
+     * one is complete; if loading fails the old index stays.
+     */
+    public Stats rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Index rebuilt = null;
+            try {
+                rebuilt = load();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (rebuilt != null) {
+                        for (Consumer<Index> change : changesDuringRebuild) {
+                            change.accept(rebuilt);
+                        }
+                        index = rebuilt;
+                    }
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            return stats();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Index load() {
+        Index loaded = new Index();
+        Long afterId = null;
+        List<StudentResponse> page;
+        do {
+            page = studentRepository.findPageOrderById(null, null, null, null, null, afterId, Limit.of(LOAD_PAGE_SIZE));
+            page.forEach(loaded::put);
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).id();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return loaded;
+    }
+
+    /**
+     * Add or replace a student. Call after the change has committed.
+     */
+    public void put(StudentResponse student) {
+        write(current -> current.put(student));
+    }
+
+    public void putAll(Collection<StudentResponse> students) {
+        write(current -> students.forEach(current::put));
+    }
+
+    public void remove(Long id) {
+        write(current -> current.remove(id));
+    }
+
+    /**
+     * Ranked matches for the query, best first; offset and limit select the page.
+     */
+    public Result search(String query, int offset, int limit) {
+        List<String> terms = terms(query);
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(index.match(terms).entrySet());
+            Map<Long, StudentResponse> documents = index.documents;
+            ranked.sort(Comparator.<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                    .thenComparing(entry -> documents.get(entry.getKey()).rollNumber(),
+                            Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Map.Entry::getKey));
+            List<StudentResponse> page = new ArrayList<>();
+            for (int i = offset; i < Math.min(ranked.size(), offset + limit); i++) {
+                page.add(documents.get(ranked.get(i).getKey()));
+            }
+            return new Result(page, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return index.stats();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : WHITESPACE.split(normalize(query))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return List.copyOf(terms);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record Result(List<StudentResponse> students, int total) {
+    }
+
+    /**
+     * Size of the index. The byte figure is an estimate from entry counts and key lengths using
+     * typical 64-bit JVM object sizes (compressed references), not a heap measurement.
+     */
+    public record Stats(int documents, int keys, long postings, long estimatedBytes) {
+    }
+
+    /**
+     * The index structures. Not thread-safe; StudentSearchIndex guards them with its lock.
+     */
+    private static final class Index {
+
+        // Approximate object sizes in bytes
+        private static final int STRING = 40;
+        private static final int MAP_ENTRY = 40;
+        private static final int POSTING_SET = 64;
+        private static final int POSTING = 48;
+        private static final int DOCUMENT = 220;
+
+        private final Map<Long, StudentResponse> documents = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> rollNumbers = new TreeMap<>();
+        private final NavigableMap<String, Set<Long>> words = new TreeMap<>();
+        private final Map<String, Set<Long>> grams = new HashMap<>();
+
+        private int keys;
+        private long keyChars;
+        private long postings;
+        private long documentChars;
+
+        void put(StudentResponse student) {
+            remove(student.id());
+            documents.put(student.id(), student);
+            documentChars += chars(student);
+            Keys keys = Keys.of(student);
+            add(rollNumbers, keys.rollNumber(), student.id());
+            keys.words().forEach(word -> add(words, word, student.id()));
+            keys.grams().forEach(gram -> add(grams, gram, student.id()));
+        }
+
+        void remove(Long id) {
+            StudentResponse previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            documentChars -= chars(previous);
+            Keys keys = Keys.of(previous);
+            drop(rollNumbers, keys.rollNumber(), id);
+            keys.words().forEach(word -> drop(words, word, id));
+            keys.grams().forEach(gram -> drop(grams, gram, id));
+        }
+
+        /**
+         * Score per student matching every term; a student scores each term by its best match.
+         */
+        Map<Long, Integer> match(List<String> terms) {
+            Map<Long, Integer> scores = null;
+            for (String term : terms) {
+                Map<Long, Integer> termScores = match(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return scores == null ? Map.of() : scores;
+        }
+
+        private Map<Long, Integer> match(String term) {
+            Map<Long, Integer> scores = new HashMap<>();
+            prefix(rollNumbers, term).forEach((key, ids) ->
+                    best(scores, ids, key.equals(term) ? ROLL_NUMBER_EXACT : ROLL_NUMBER_PREFIX));
+            prefix(words, term).forEach((key, ids) -> best(scores, ids, key.equals(term) ? WORD_EXACT : WORD_PREFIX));
+            if (term.length() >= GRAM) {
+                for (Long id : gramCandidates(term)) {
+                    if (!scores.containsKey(id) && Keys.contains(documents.get(id), term)) {
+                        scores.put(id, SUBSTRING);
+                    }
+                }
+            }
+            return scores;
+        }
+
+        // Students holding every trigram of the term, smallest posting list first
+        private Set<Long> gramCandidates(String term) {
+            List<Set<Long>> lists = new ArrayList<>();
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                Set<Long> ids = grams.get(term.substring(i, i + GRAM));
+                if (ids == null) {
+                    return Set.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<Long> candidates = new HashSet<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+                candidates.retainAll(lists.get(i));
+            }
+            return candidates;
+        }
+
+        private static NavigableMap<String, Set<Long>> prefix(NavigableMap<String, Set<Long>> map, String prefix) {
+            return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        private static void best(Map<Long, Integer> scores, Set<Long> ids, int score) {
+            ids.forEach(id -> scores.merge(id, score, Math::max));
+        }
+
+        private void add(Map<String, Set<Long>> map, String key, Long id) {
+            if (key.isEmpty()) {
+                return;
+            }
+            Set<Long> ids = map.get(key);
+            if (ids == null) {
+                ids = new HashSet<>(2);
+                map.put(key, ids);
+                keys++;
+                keyChars += key.length();
+            }
+            if (ids.add(id)) {
+                postings++;
+            }
+        }
+
+        private void drop(Map<String, Set<Long>> map, String key, Long id) {
+            Set<Long> ids = map.get(key);
+            if (ids == null || !ids.remove(id)) {
+                return;
+            }
+            postings--;
+            if (ids.isEmpty()) {
+                map.remove(key);
+                keys--;
+                keyChars -= key.length();
+            }
+        }
+
+        Stats stats() {
+            long bytes = (long) documents.size() * (DOCUMENT + MAP_ENTRY) + documentChars
+                    + (long) keys * (MAP_ENTRY + STRING + POSTING_SET) + keyChars
+                    + postings * POSTING;
+            return new Stats(documents.size(), keys, postings, bytes);
+        }
+
+        private static long chars(StudentResponse student) {
+            return length(student.rollNumber()) + length(student.firstName()) + length(student.lastName())
+                    + length(student.email()) + length(student.photographPath()) + length(student.photographVersion())
+                    + length(student.domainProgram()) + length(student.domainBatch());
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+
+    /**
+     * The keys a student is indexed under, all lower case.
+     */
+    private record Keys(String rollNumber, Set<String> words, Set<String> grams) {
+
+        static Keys of(StudentResponse student) {
+            String email = normalize(student.email());
+            Set<String> words = new HashSet<>();
+            for (String field : List.of(normalize(student.firstName()), normalize(student.lastName()))) {
+                for (String word : WORD_SEPARATORS.split(field)) {
+                    if (!word.isEmpty()) {
+                        words.add(word);
+                    }
+                }
+            }
+            if (!email.isEmpty()) {
+                words.add(email);
+                int at = email.indexOf('@');
+                if (at > 0) {
+                    words.add(email.substring(0, at));
+                }
+            }
+
+            Set<String> grams = new HashSet<>();
+            for (String field : fields(student)) {
+                for (int i = 0; i + GRAM <= field.length(); i++) {
+                    grams.add(field.substring(i, i + GRAM));
+                }
+            }
+            return new Keys(normalize(student.rollNumber()), words, grams);
+        }
+
+        static boolean contains(StudentResponse student, String term) {
+            for (String field : fields(student)) {
+                if (field.contains(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static List<String> fields(StudentResponse student) {
+            return List.of(normalize(student.rollNumber()), normalize(student.firstName()),
+                    normalize(student.lastName()), normalize(student.email()));
+        }
+    }
+}
@@ -2,25 +2,45 @@ package com.harsh.fullstackbackend.service;
 
 import com.harsh.fullstackbackend.domain.Domain;
 import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.dto.StudentBatchRequest;
+import com.harsh.fullstackbackend.dto.StudentBatchResponse;
+import com.harsh.fullstackbackend.dto.StudentFilter;
+import com.harsh.fullstackbackend.dto.StudentPage;
+import com.harsh.fullstackbackend.dto.StudentPatch;
 import com.harsh.fullstackbackend.dto.StudentRequest;
 import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.dto.StudentSearchPage;
 import com.harsh.fullstackbackend.exception.FileStorageException;
 import com.harsh.fullstackbackend.exception.ResourceNotFoundException;
+import com.harsh.fullstackbackend.repository.PhotoMetadata;
 import com.harsh.fullstackbackend.repository.StudentRepository;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.time.Year;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -29,226 +49,496 @@ public class StudentService {
 
     private final StudentRepository studentRepository;
     private final DomainService domainService;
-
-    @Value("${app.upload-dir:uploads}")
-    private String uploadDir;
-
-    public StudentService(StudentRepository studentRepository, DomainService domainService) {
+    private final RollNumberAllocator rollNumberAllocator;
+    private final PhotoStore photoStore;
+    private final PhotoDerivativeService photoDerivativeService;
+    private final StudentSearchIndex studentSearchIndex;
+    private final DomainStatistics domainStatistics;
+    private final DomainAdmission domainAdmission;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.students.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${app.students.max-batch-size:2000}")
+    private int maxBatchSize;
+
+    public StudentService(StudentRepository studentRepository, DomainService domainService,
+            RollNumberAllocator rollNumberAllocator, PhotoStore photoStore,
+            PhotoDerivativeService photoDerivativeService, StudentSearchIndex studentSearchIndex,
+            DomainStatistics domainStatistics, DomainAdmission domainAdmission,
+            PlatformTransactionManager transactionManager) {
         this.studentRepository = studentRepository;
         this.domainService = domainService;
+        this.rollNumberAllocator = rollNumberAllocator;
+        this.photoStore = photoStore;
+        this.photoDerivativeService = photoDerivativeService;
+        this.studentSearchIndex = studentSearchIndex;
+        this.domainStatistics = domainStatistics;
+        this.domainAdmission = domainAdmission;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * Runs in three steps so no pooled connection is held while the upload is copied: a seat in
+     * the domain is taken, the roll number allocated and the photograph staged to a temp file
+     * first, then a short transaction inserts the row, and only after it commits is the
+     * photograph renamed into place. A staged file that is never committed is deleted, and the
+     * seat given back.
+     */
     public StudentResponse createStudent(StudentRequest request, MultipartFile photograph) {
         validateStudentRequest(request);
         if (photograph == null || photograph.isEmpty()) {
             throw new IllegalArgumentException("Photograph is required and cannot be empty");
         }
+        Domain domain = domainService.getDomainById(request.domainId());
+        domainAdmission.checkOpen(domain);
         if (studentRepository.existsByEmail(request.email())) {
             throw new IllegalArgumentException("Email already registered");
         }
 
-        Domain domain = domainService.getDomainById(request.domainId());
-        String rollNumber = generateRollNumber(domain);
-        String photoPath = storePhotograph(photograph, rollNumber);
-
-        Student student = new Student();
-        student.setFirstName(request.firstName());
-        student.setLastName(request.lastName());
-        student.setEmail(request.email());
-        student.setCgpa(request.cgpa());
-        student.setTotalCredits(request.totalCredits());
-        student.setGraduationYear(request.graduationYear());
-        student.setDomain(domain);
-        student.setSpecialisationId(request.specialisationId());
-        student.setPlacementId(request.placementId());
-        student.setRollNumber(rollNumber);
-        student.setPhotographPath(photoPath);
-
-        return toResponse(studentRepository.save(student));
+        domainAdmission.admit(domain);
+        boolean enrolled = false;
+        try {
+            String rollNumber = rollNumberAllocator.next(domain);
+            StagedPhotograph staged = stagePhotograph(photograph);
+            try {
+                StudentResponse created = transactionTemplate.execute(status -> {
+                    Student student = new Student();
+                    student.setFirstName(request.firstName());
+                    student.setLastName(request.lastName());
+                    student.setEmail(request.email());
+                    student.setCgpa(request.cgpa());
+                    student.setTotalCredits(request.totalCredits());
+                    student.setGraduationYear(request.graduationYear());
+                    student.setDomain(domain);
+                    student.setSpecialisationId(request.specialisationId());
+                    student.setPlacementId(request.placementId());
+                    student.setRollNumber(rollNumber);
+                    staged.applyTo(student);
+
+                    return toResponse(studentRepository.save(student));
+                });
+                commitPhotograph(staged, () -> studentRepository.deleteById(created.id()));
+                enrolled = true;
+                studentSearchIndex.put(created);
+                domainStatistics.record(null, DomainStatistics.Enrolment.of(created));
+                return created;
+            } finally {
+                photoStore.discard(staged.file());
+            }
+        } finally {
+            if (!enrolled) {
+                domainAdmission.release(domain.getId(), 1);
+            }
+        }
     }
 
-    @Transactional
+    /**
+     * Same shape as {@link #createStudent}: a new photograph is staged before the transaction and
+     * committed after it, and the previous one is released only once the row no longer points at
+     * it. Moving to another domain takes a seat there inside the transaction.
+     */
     public StudentResponse updateStudent(Long id, StudentRequest request, MultipartFile photograph) {
         validateStudentRequest(request);
 
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student %d not found".formatted(id)));
-
+        if (!studentRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Student %d not found".formatted(id));
+        }
         if (studentRepository.existsByEmailAndIdNot(request.email(), id)) {
             throw new IllegalArgumentException("Email already registered");
         }
 
         Domain domain = domainService.getDomainById(request.domainId());
+        StagedPhotograph staged = photograph != null && !photograph.isEmpty() ? stagePhotograph(photograph) : null;
 
-        student.setFirstName(request.firstName());
-        student.setLastName(request.lastName());
-        student.setEmail(request.email());
-        student.setCgpa(request.cgpa());
-        student.setTotalCredits(request.totalCredits());
-        student.setGraduationYear(request.graduationYear());
-        student.setDomain(domain);
-        student.setSpecialisationId(request.specialisationId());
-        student.setPlacementId(request.placementId());
-
-        if (photograph != null && !photograph.isEmpty()) {
-            String oldPhotoPath = student.getPhotographPath();
-            String photoPath = storePhotograph(photograph, student.getRollNumber());
-            student.setPhotographPath(photoPath);
-            deletePhotographFile(oldPhotoPath);
+        try {
+            Updated updated = transactionTemplate.execute(status -> {
+                Student student = studentRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Student %d not found".formatted(id)));
+                DomainStatistics.Enrolment enrolment = DomainStatistics.Enrolment.of(student);
+                domainAdmission.transfer(enrolment.domainId(), domain);
+
+                student.setFirstName(request.firstName());
+                student.setLastName(request.lastName());
+                student.setEmail(request.email());
+                student.setCgpa(request.cgpa());
+                student.setTotalCredits(request.totalCredits());
+                student.setGraduationYear(request.graduationYear());
+                student.setDomain(domain);
+                student.setSpecialisationId(request.specialisationId());
+                student.setPlacementId(request.placementId());
+
+                PhotoMetadata previous = new PhotoMetadata(student.getPhotographPath(),
+                        student.getPhotographContentType(), student.getPhotographSha256());
+                if (staged != null) {
+                    staged.applyTo(student);
+                }
+
+                return new Updated(toResponse(studentRepository.save(student)), previous, enrolment);
+            });
+            if (staged != null) {
+                PhotoMetadata previous = updated.previousPhoto();
+                commitPhotograph(staged, () -> studentRepository.updatePhotograph(id, previous.path(),
+                        previous.contentType(), previous.sha256()));
+                deletePhotographFile(previous.path());
+            }
+            studentSearchIndex.put(updated.response());
+            domainStatistics.record(updated.previousEnrolment(), DomainStatistics.Enrolment.of(updated.response()));
+            return updated.response();
+        } finally {
+            if (staged != null) {
+                photoStore.discard(staged.file());
+            }
         }
+    }
 
-        return toResponse(studentRepository.save(student));
+    /**
+     * Applies only the fields present in the patch. The domain is looked up and a seat moved only
+     * when domainId changes, and the email uniqueness check runs only for a new address; with
+     * Student's dynamic updates the UPDATE sets just the changed columns.
+     */
+    public StudentResponse patchStudent(Long id, StudentPatch patch) {
+        validateStudentPatch(patch);
+        StudentRequest values = patch.values();
+
+        Updated updated = transactionTemplate.execute(status -> {
+            Student student = studentRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student %d not found".formatted(id)));
+            DomainStatistics.Enrolment enrolment = DomainStatistics.Enrolment.of(student);
+
+            if (patch.has("email") && !values.email().equals(student.getEmail())) {
+                if (studentRepository.existsByEmailAndIdNot(values.email(), id)) {
+                    throw new IllegalArgumentException("Email already registered");
+                }
+                student.setEmail(values.email());
+            }
+            if (patch.has("domainId") && !values.domainId().equals(enrolment.domainId())) {
+                Domain domain = domainService.getDomainById(values.domainId());
+                domainAdmission.transfer(enrolment.domainId(), domain);
+                student.setDomain(domain);
+            }
+            if (patch.has("firstName")) {
+                student.setFirstName(values.firstName());
+            }
+            if (patch.has("lastName")) {
+                student.setLastName(values.lastName());
+            }
+            if (patch.has("cgpa")) {
+                student.setCgpa(values.cgpa());
+            }
+            if (patch.has("totalCredits")) {
+                student.setTotalCredits(values.totalCredits());
+            }
+            if (patch.has("graduationYear")) {
+                student.setGraduationYear(values.graduationYear());
+            }
+            if (patch.has("specialisationId")) {
+                student.setSpecialisationId(values.specialisationId());
+            }
+            if (patch.has("placementId")) {
+                student.setPlacementId(values.placementId());
+            }
+
+            StudentResponse response = toResponse(student, domainService.getDomain(student.getDomain().getId()));
+            return new Updated(response, null, enrolment);
+        });
+        studentSearchIndex.put(updated.response());
+        domainStatistics.record(updated.previousEnrolment(), DomainStatistics.Enrolment.of(updated.response()));
+        return updated.response();
     }
 
-    @Transactional
     public void deleteStudent(Long id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Student %d not found".formatted(id)));
-        deletePhotographFile(student.getPhotographPath());
-        studentRepository.delete(student);
+        Deleted deleted = transactionTemplate.execute(status -> {
+            Student student = studentRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student %d not found".formatted(id)));
+            studentRepository.delete(student);
+            domainAdmission.vacate(student.getDomain().getId(), 1);
+            return new Deleted(student.getPhotographPath(), DomainStatistics.Enrolment.of(student));
+        });
+        studentSearchIndex.remove(id);
+        domainStatistics.record(deleted.enrolment(), null);
+        deletePhotographFile(deleted.photoPath());
     }
 
-    public List<StudentResponse> getAllStudents() {
-        return studentRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+    /**
+     * Keyset-paginated listing ordered by id or roll number. Without a limit the page is capped
+     * at app.students.max-page-size; nextCursor is null once the last row has been returned.
+     */
+    public StudentPage getStudents(StudentFilter filter, String sort, String cursor, Integer limit) {
+        String sortKey = StringUtils.hasText(sort) ? sort : SORT_BY_ID;
+        if (!SORT_BY_ID.equals(sortKey) && !SORT_BY_ROLL_NUMBER.equals(sortKey)) {
+            throw new IllegalArgumentException("Unsupported sort '%s', expected '%s' or '%s'"
+                    .formatted(sortKey, SORT_BY_ID, SORT_BY_ROLL_NUMBER));
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (filter.minCgpa() != null && filter.maxCgpa() != null && filter.minCgpa() > filter.maxCgpa()) {
+            throw new IllegalArgumentException("minCgpa cannot be greater than maxCgpa");
+        }
+        int pageSize = limit == null ? maxPageSize : Math.min(limit, maxPageSize);
+        String after = decodeCursor(cursor, sortKey);
+
+        // Fetch one extra row to learn whether another page exists
+        List<StudentResponse> rows;
+        if (SORT_BY_ID.equals(sortKey)) {
+            Long afterId = null;
+            if (after != null) {
+                try {
+                    afterId = Long.parseLong(after);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+            }
+            rows = studentRepository.findPageOrderById(filter.domainId(), filter.graduationYear(),
+                    filter.minCgpa(), filter.maxCgpa(), filter.specialisationId(), afterId, Limit.of(pageSize + 1));
+        } else {
+            rows = studentRepository.findPageOrderByRollNumber(filter.domainId(), filter.graduationYear(),
+                    filter.minCgpa(), filter.maxCgpa(), filter.specialisationId(), after, Limit.of(pageSize + 1));
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            StudentResponse last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(sortKey,
+                    SORT_BY_ID.equals(sortKey) ? String.valueOf(last.id()) : last.rollNumber());
+        }
+        return new StudentPage(rows, nextCursor);
+    }
+
+    /**
+     * Resolves ids and roll numbers in one statement. Students come back once each, in request
+     * order (ids first, then roll numbers); keys that match no student are listed as missing.
+     */
+    public StudentBatchResponse getStudentsBatch(StudentBatchRequest request) {
+        Set<Long> ids = request.ids() == null ? new LinkedHashSet<>() : new LinkedHashSet<>(request.ids());
+        Set<String> rollNumbers = request.rollNumbers() == null ? new LinkedHashSet<>()
+                : new LinkedHashSet<>(request.rollNumbers());
+        if (ids.contains(null) || rollNumbers.contains(null)) {
+            throw new IllegalArgumentException("Ids and roll numbers cannot be null");
+        }
+        if (ids.isEmpty() && rollNumbers.isEmpty()) {
+            throw new IllegalArgumentException("At least one id or roll number is required");
+        }
+        if (ids.size() + rollNumbers.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most %d ids and roll numbers per batch".formatted(maxBatchSize));
+        }
+
+        Map<Long, StudentResponse> byId = new HashMap<>();
+        Map<String, StudentResponse> byRollNumber = new HashMap<>();
+        for (StudentResponse student : studentRepository.findResponsesByIdInOrRollNumberIn(ids, rollNumbers)) {
+            byId.put(student.id(), student);
+            byRollNumber.put(student.rollNumber(), student);
+        }
+
+        Map<Long, StudentResponse> found = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            StudentResponse student = byId.get(id);
+            if (student == null) {
+                missingIds.add(id);
+            } else {
+                found.putIfAbsent(student.id(), student);
+            }
+        }
+        List<String> missingRollNumbers = new ArrayList<>();
+        for (String rollNumber : rollNumbers) {
+            StudentResponse student = byRollNumber.get(rollNumber);
+            if (student == null) {
+                missingRollNumbers.add(rollNumber);
+            } else {
+                found.putIfAbsent(student.id(), student);
+            }
+        }
+        return new StudentBatchResponse(List.copyOf(found.values()), missingIds, missingRollNumbers);
     }
 
+    /**
+     * Ranked search by partial name, email or roll number, served from the in-memory index.
+     * Every whitespace-separated term must match.
+     */
+    public StudentSearchPage searchStudents(String query, int page, Integer size) {
+        if (!StringUtils.hasText(query)) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page cannot be negative");
+        }
+        if (size != null && size < 1) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        int pageSize = size == null ? DEFAULT_SEARCH_PAGE_SIZE : Math.min(size, MAX_SEARCH_PAGE_SIZE);
+        long offset = (long) page * pageSize;
+        if (offset > Integer.MAX_VALUE - pageSize) {
+            throw new IllegalArgumentException("Page is out of range");
+        }
+        StudentSearchIndex.Result result = studentSearchIndex.search(query, (int) offset, pageSize);
+        return new StudentSearchPage(result.students(), result.total(), page, pageSize);
+    }
+
+    /**
+     * Served from the second-level cache when warm. This loads the entity rather than projecting
+     * straight into the response as list reads do: a projection query always goes to the database,
+     * whereas a warm lookup by id plus the domain catalog issues no statements at all. Outside a
+     * transaction the student's domain is an uninitialised proxy, so its columns come from the
+     * domain catalog instead.
+     */
     public StudentResponse getStudent(Long id) {
-        return studentRepository.findById(id)
-                .map(this::toResponse)
+        Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Student %d not found".formatted(id)));
+        return toResponse(student, domainService.getDomain(student.getDomain().getId()));
+    }
+
+    /**
+     * Looks the student up through the roll number natural-id cache.
+     */
+    public StudentResponse getStudentByRollNumber(String rollNumber) {
+        Student student = studentRepository.findByRollNumber(rollNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Student %s not found".formatted(rollNumber)));
+        return toResponse(student, domainService.getDomain(student.getDomain().getId()));
     }
 
-    public PhotoResource getStudentPhoto(Long studentId) {
-        Student student = studentRepository.findById(studentId)
+    /**
+     * Photograph for serving at the requested size. Content type and hash are recorded at upload;
+     * rows stored before those columns existed get them computed from the file once and written
+     * back. A derivative that has not been rendered yet is queued and the original served
+     * meanwhile.
+     */
+    public PhotoResource getStudentPhoto(Long studentId, PhotoDerivativeService.Size size) {
+        PhotoMetadata metadata = studentRepository.findById(studentId)
+                .map(student -> new PhotoMetadata(student.getPhotographPath(), student.getPhotographContentType(),
+                        student.getPhotographSha256()))
                 .orElseThrow(() -> new ResourceNotFoundException("Student %d not found".formatted(studentId)));
 
-        if (!StringUtils.hasText(student.getPhotographPath())) {
+        if (!StringUtils.hasText(metadata.path())) {
             throw new ResourceNotFoundException("Photograph not available for student %d".formatted(studentId));
         }
 
-        Path photoPath = Path.of(student.getPhotographPath()).toAbsolutePath().normalize();
-        if (!Files.exists(photoPath)) {
-            throw new ResourceNotFoundException("Photograph file missing for student %d".formatted(studentId));
-        }
-
+        Path photoPath = photoStore.resolve(metadata.path());
         try {
-            Resource resource = new UrlResource(photoPath.toUri());
-            if (!resource.exists() || !resource.isReadable()) {
-                throw new FileStorageException("Photograph cannot be read for student %d".formatted(studentId));
+            String contentType = metadata.contentType();
+            String sha256 = metadata.sha256();
+            if (sha256 == null) {
+                try (InputStream content = Files.newInputStream(photoPath)) {
+                    sha256 = sha256Hex(content);
+                }
+                contentType = resolveContentType(null, photoPath.getFileName().toString());
+                studentRepository.updatePhotograph(studentId, metadata.path(), contentType, sha256);
             }
-            String contentType = Files.probeContentType(photoPath);
-            return new PhotoResource(resource, contentType);
-        } catch (MalformedURLException e) {
-            throw new FileStorageException("Invalid photograph path for student %d".formatted(studentId), e);
+
+            boolean fallback = false;
+            if (size != PhotoDerivativeService.Size.ORIGINAL) {
+                Optional<Path> derivative = photoDerivativeService.find(sha256, size);
+                if (derivative.isPresent()) {
+                    return photoResource(derivative.get(), "image/jpeg", sha256, size.variant(), false);
+                }
+                photoDerivativeService.enqueue(metadata.path(), sha256);
+                fallback = true;
+            }
+            return photoResource(photoPath, contentType, sha256, null, fallback);
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Photograph file missing for student %d".formatted(studentId));
         } catch (IOException e) {
             throw new FileStorageException("Unable to read photograph for student %d".formatted(studentId), e);
         }
     }
 
-    private static final int PREFIX_LENGTH = 2;
-    private static final int SEQUENCE_LENGTH = 3;
+    private static PhotoResource photoResource(Path path, String contentType, String sha256, String variant,
+            boolean fallback) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new PhotoResource(path, contentType, sha256, variant, attributes.size(),
+                attributes.lastModifiedTime().toMillis(), fallback);
+    }
 
-    private String generateRollNumber(Domain domain) {
-        String prefix = determineDomainPrefix(domain);
-        String batchSuffix = extractBatchSuffix(domain.getBatch());
-        String rollPrefix = prefix + batchSuffix;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
 
-        return studentRepository.findTopByRollNumberStartingWithOrderByRollNumberDesc(rollPrefix)
-                .map(Student::getRollNumber)
-                .map(lastRoll -> rollPrefix + formatSequence(lastRoll.substring(rollPrefix.length())))
-                .orElse(rollPrefix + formatSequence(null));
-    }
+    private static final String SORT_BY_ID = "id";
+    private static final String SORT_BY_ROLL_NUMBER = "rollNumber";
 
-    private String determineDomainPrefix(Domain domain) {
-        if (domain == null) {
-            return "XX";
-        }
-        String fromQualification = normalizePrefix(domain.getQualification());
-        if (StringUtils.hasText(fromQualification)) {
-            return fromQualification;
-        }
-        String fromProgram = normalizePrefix(domain.getProgram());
-        if (StringUtils.hasText(fromProgram)) {
-            return fromProgram;
-        }
-        return "XX";
+    private static String encodeCursor(String sortKey, String lastValue) {
+        String raw = sortKey + ":" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    private String normalizePrefix(String source) {
-        if (!StringUtils.hasText(source)) {
+    private static String decodeCursor(String cursor, String sortKey) {
+        if (!StringUtils.hasText(cursor)) {
             return null;
         }
-        String letters = source.replaceAll("[^A-Za-z]", "").toUpperCase();
-        if (!StringUtils.hasText(letters)) {
-            return null;
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
         }
-        if (letters.length() >= PREFIX_LENGTH) {
-            return letters.substring(0, PREFIX_LENGTH);
+        int separator = raw.indexOf(':');
+        if (separator < 0 || !raw.substring(0, separator).equals(sortKey)) {
+            throw new IllegalArgumentException("Cursor does not match sort '%s'".formatted(sortKey));
         }
-        return (letters + "XX").substring(0, PREFIX_LENGTH);
+        return raw.substring(separator + 1);
     }
 
-    private String extractBatchSuffix(String batch) {
-        if (batch == null || batch.isBlank()) {
-            return String.valueOf(Year.now().getValue()).substring(2);
-        }
-        String digits = batch.replaceAll("\\D", "");
-        if (digits.isEmpty()) {
-            return String.valueOf(Year.now().getValue()).substring(2);
-        }
-        if (digits.length() >= 2) {
-            return digits.substring(digits.length() - 2);
+    private StagedPhotograph stagePhotograph(MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            PhotoStore.StagedPhoto staged = photoStore.stage(content);
+            return new StagedPhotograph(staged, resolveContentType(file.getContentType(),
+                    Objects.requireNonNull(file.getOriginalFilename(), "photo")));
+        } catch (IOException ex) {
+            throw new FileStorageException("Unable to store photograph", ex);
         }
-        return String.format("%02d", Integer.parseInt(digits));
     }
 
-    private String formatSequence(String lastSequence) {
-        int next = 1;
-        if (StringUtils.hasText(lastSequence)) {
-            try {
-                next = Integer.parseInt(lastSequence) + 1;
-            } catch (NumberFormatException ignored) {
-                next = 1;
-            }
+    /**
+     * Runs after the row has committed. If the file cannot be put in place the row change is
+     * undone, so no student is left pointing at a photograph that does not exist.
+     */
+    private void commitPhotograph(StagedPhotograph staged, Runnable undo) {
+        try {
+            PhotoStore.StoredBlob blob = photoStore.commit(staged.file());
+            photoDerivativeService.enqueue(blob.location(), blob.sha256());
+        } catch (RuntimeException e) {
+            undo.run();
+            throw e;
         }
-        return String.format("%0" + SEQUENCE_LENGTH + "d", next);
     }
 
-    private String storePhotograph(MultipartFile file, String rollNumber) {
-        if (file == null || file.isEmpty()) {
-            return null;
-        }
-        try {
-            Path directory = Path.of(uploadDir).toAbsolutePath().normalize();
-            Files.createDirectories(directory);
-
-            String extension = StringUtils.getFilenameExtension(Objects.requireNonNull(file.getOriginalFilename(), "photo"));
-            String safeExtension = extension == null ? "jpg" : extension;
-            String filename = "%s_%s.%s".formatted(rollNumber, UUID.randomUUID(), safeExtension);
-            Path destination = directory.resolve(filename);
-            Files.copy(file.getInputStream(), destination, StandardCopyOption.REPLACE_EXISTING);
-            return destination.toString();
-        } catch (IOException ex) {
-            throw new FileStorageException("Unable to store photograph", ex);
-        }
+    /**
+     * Store and commit in one step, for the bulk import, which writes every photograph before
+     * its insert transactions and releases the ones whose rows fail. The content type is
+     * resolved now so it can be saved with the student instead of being worked out on every read.
+     */
+    StoredPhotograph storePhotograph(InputStream content, String originalFilename, String declaredContentType) {
+        PhotoStore.StoredBlob blob = photoStore.store(content);
+        photoDerivativeService.enqueue(blob.location(), blob.sha256());
+        return new StoredPhotograph(blob.location(), resolveContentType(declaredContentType, originalFilename),
+                blob.sha256());
     }
 
-    private void deletePhotographFile(String path) {
-        if (!StringUtils.hasText(path)) {
-            return;
+    static String resolveContentType(String declaredContentType, String filename) {
+        if (declaredContentType != null && declaredContentType.startsWith("image/")) {
+            return declaredContentType;
         }
-        try {
-            Path filePath = Path.of(path);
-            Files.deleteIfExists(filePath);
-        } catch (IOException ignored) {
-            // ignore failures while deleting old files
+        String guessed = URLConnection.guessContentTypeFromName(filename);
+        return guessed != null ? guessed : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private static String sha256Hex(InputStream content) throws IOException {
+        MessageDigest digest = LocalPhotoStore.sha256Digest();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
         }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
-    private void validateStudentRequest(StudentRequest request) {
+    void deletePhotographFile(String path) {
+        photoStore.release(path);
+    }
+
+    static void validateStudentRequest(StudentRequest request) {
         if (request.firstName() == null || request.firstName().trim().isEmpty()) {
             throw new IllegalArgumentException("First name is required");
         }
@@ -272,7 +562,41 @@ public class StudentService {
         }
     }
 
-    private StudentResponse toResponse(Student student) {
+    /**
+     * Fields that are required on create may be left out of a patch, but not set to null.
+     */
+    static void validateStudentPatch(StudentPatch patch) {
+        StudentRequest values = patch.values();
+        if (patch.has("firstName") && !StringUtils.hasText(values.firstName())) {
+            throw new IllegalArgumentException("First name is required");
+        }
+        if (patch.has("lastName") && !StringUtils.hasText(values.lastName())) {
+            throw new IllegalArgumentException("Last name is required");
+        }
+        if (patch.has("email") && !StringUtils.hasText(values.email())) {
+            throw new IllegalArgumentException("Email is required");
+        }
+        if (patch.has("cgpa") && values.cgpa() == null) {
+            throw new IllegalArgumentException("CGPA is required");
+        }
+        if (patch.has("totalCredits") && values.totalCredits() == null) {
+            throw new IllegalArgumentException("Total credits is required");
+        }
+        if (patch.has("graduationYear") && values.graduationYear() == null) {
+            throw new IllegalArgumentException("Graduation year is required");
+        }
+        if (patch.has("domainId") && values.domainId() == null) {
+            throw new IllegalArgumentException("Domain ID is required");
+        }
+    }
+
+    static StudentResponse toResponse(Student student) {
+        Domain domain = student.getDomain();
+        return toResponse(student, new DomainResponse(domain.getId(), domain.getProgram(), domain.getBatch(),
+                domain.getCapacity(), domain.getQualification()));
+    }
+
+    private static StudentResponse toResponse(Student student, DomainResponse domain) {
         return new StudentResponse(
                 student.getId(),
                 student.getRollNumber(),
@@ -280,18 +604,53 @@ public class StudentService {
                 student.getLastName(),
                 student.getEmail(),
                 student.getPhotographPath(),
+                student.getPhotographSha256(),
                 student.getCgpa(),
                 student.getTotalCredits(),
                 student.getGraduationYear(),
                 student.getSpecialisationId(),
                 student.getPlacementId(),
-                student.getDomain().getId(),
-                student.getDomain().getProgram(),
-                student.getDomain().getBatch()
+                domain.id(),
+                domain.program(),
+                domain.batch()
         );
     }
 
-    public record PhotoResource(Resource resource, String contentType) {
+    /**
+     * A file to serve. variant is null for the original; fallback marks an original standing in
+     * for a derivative that is not ready, which must not be cached as that derivative.
+     */
+    public record PhotoResource(Path path, String contentType, String sha256, String variant, long length,
+            long lastModified, boolean fallback) {
+
+        public String etag() {
+            return "\"" + (variant == null ? sha256 : sha256 + "-" + variant) + "\"";
+        }
+    }
+
+    private record StagedPhotograph(PhotoStore.StagedPhoto file, String contentType) {
+
+        void applyTo(Student student) {
+            student.setPhotographPath(file.location());
+            student.setPhotographContentType(contentType);
+            student.setPhotographSha256(file.sha256());
+        }
+    }
+
+    private record Updated(StudentResponse response, PhotoMetadata previousPhoto,
+            DomainStatistics.Enrolment previousEnrolment) {
+    }
+
+    private record Deleted(String photoPath, DomainStatistics.Enrolment enrolment) {
+    }
+
+    record StoredPhotograph(String path, String contentType, String sha256) {
+
+        void applyTo(Student student) {
+            student.setPhotographPath(path);
+            student.setPhotographContentType(contentType);
+            student.setPhotographSha256(sha256);
+        }
     }
 }
 
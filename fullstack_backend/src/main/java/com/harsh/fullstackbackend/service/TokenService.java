@@ -2,16 +2,32 @@ package com.harsh.fullstackbackend.service;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Google sign-in: code exchange, ID token verification and the in-memory token store.
+ * Publishes {@code auth.token.exchanges} and {@code auth.token.verifications} timers (tagged
+ * with outcome, and for verifications whether the token was checked locally or by tokeninfo)
+ * and an {@code auth.token.store.size} gauge.
+ */
 @Service
 public class TokenService {
 
@@ -24,15 +40,53 @@ public class TokenService {
     @Value("${app.google.redirect-uri}")
     private String redirectUri;
 
+    @Value("${app.google.token-uri:https://oauth2.googleapis.com/token}")
+    private String tokenUri;
+
+    @Value("${app.google.tokeninfo-uri:https://oauth2.googleapis.com/tokeninfo}")
+    private String tokenInfoUri;
+
+    private static final Set<String> GOOGLE_ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+
+    // Tolerated clock difference when checking exp
+    private static final long CLOCK_SKEW_SECONDS = 60;
+
+    private final JwksKeyCache jwksKeyCache;
+
     // Store tokens in memory: email -> {idToken, accessToken, refreshToken}
     private final Map<String, TokenData> tokenStore = new ConcurrentHashMap<>();
 
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final HttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+
+    public TokenService(JwksKeyCache jwksKeyCache, HttpClient googleHttpClient, MeterRegistry meterRegistry) {
+        this.jwksKeyCache = jwksKeyCache;
+        this.httpClient = googleHttpClient;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("auth.token.store.size", tokenStore, Map::size)
+                .description("Signed-in users whose Google tokens are held in memory")
+                .register(meterRegistry);
+    }
 
     /**
      * Exchange authorization code for tokens (ID, Access, Refresh)
      */
     public TokenData exchangeCodeForTokens(String authCode) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            TokenData tokens = requestTokens(authCode);
+            outcome = "success";
+            return tokens;
+        } finally {
+            sample.stop(Timer.builder("auth.token.exchanges")
+                    .description("Authorization code exchanges with Google's token endpoint")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private TokenData requestTokens(String authCode) throws Exception {
         String requestBody = "code=" + authCode +
                 "&client_id=" + clientId +
                 "&client_secret=" + clientSecret +
@@ -40,7 +94,7 @@ public class TokenService {
                 "&grant_type=authorization_code";
 
         HttpRequest tokenRequest = HttpRequest.newBuilder()
-                .uri(URI.create("https://oauth2.googleapis.com/token"))
+                .uri(URI.create(tokenUri))
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                 .build();
@@ -62,11 +116,70 @@ public class TokenService {
     }
 
     /**
-     * Validate ID token using Google's tokeninfo endpoint
+     * Validate ID token and return the email it was issued for
      */
     public String validateToken(String idToken) throws Exception {
+        return verifyToken(idToken).email();
+    }
+
+    /**
+     * Verify ID token signature and claims against Google's cached signing keys.
+     * Falls back to the tokeninfo endpoint only when the token's key id is not known locally.
+     */
+    public VerifiedToken verifyToken(String idToken) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Verification verification = new Verification();
+        try {
+            VerifiedToken verified = verify(idToken, verification);
+            verification.outcome = "success";
+            return verified;
+        } finally {
+            sample.stop(Timer.builder("auth.token.verifications")
+                    .description("ID token verifications")
+                    .tag("method", verification.method)
+                    .tag("outcome", verification.outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private VerifiedToken verify(String idToken, Verification verification) throws Exception {
+        String[] parts = idToken.split("\\.");
+        if (parts.length != 3) {
+            throw new RuntimeException("Malformed ID token");
+        }
+
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        JsonObject header = JsonParser.parseString(new String(decoder.decode(parts[0]), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+
+        if (!header.has("alg") || !"RS256".equals(header.get("alg").getAsString())) {
+            throw new RuntimeException("Unsupported token algorithm");
+        }
+
+        RSAPublicKey key = header.has("kid") ? jwksKeyCache.getKey(header.get("kid").getAsString()) : null;
+        if (key == null) {
+            verification.method = "remote";
+            return verifyTokenRemotely(idToken);
+        }
+
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initVerify(key);
+        signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+        if (!signature.verify(decoder.decode(parts[2]))) {
+            throw new RuntimeException("Token signature invalid");
+        }
+
+        JsonObject claims = JsonParser.parseString(new String(decoder.decode(parts[1]), StandardCharsets.UTF_8))
+                .getAsJsonObject();
+        return checkClaims(claims);
+    }
+
+    /**
+     * Validate ID token using Google's tokeninfo endpoint
+     */
+    private VerifiedToken verifyTokenRemotely(String idToken) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://oauth2.googleapis.com/tokeninfo?id_token=" + idToken))
+                .uri(URI.create(tokenInfoUri + "?id_token=" + URLEncoder.encode(idToken, StandardCharsets.UTF_8)))
                 .GET()
                 .build();
 
@@ -77,16 +190,35 @@ public class TokenService {
             throw new RuntimeException("Token validation failed");
         }
 
-        JsonObject jsonResponse = JsonParser.parseString(response.body()).getAsJsonObject();
+        return checkClaims(JsonParser.parseString(response.body()).getAsJsonObject());
+    }
 
+    private VerifiedToken checkClaims(JsonObject claims) {
         // Verify the token is for our client
-        String aud = jsonResponse.get("aud").getAsString();
+        String aud = claims.has("aud") ? claims.get("aud").getAsString() : null;
         if (!clientId.equals(aud)) {
             throw new RuntimeException("Token audience mismatch");
         }
 
-        // Return the email from the token
-        return jsonResponse.get("email").getAsString();
+        String iss = claims.has("iss") ? claims.get("iss").getAsString() : null;
+        if (!GOOGLE_ISSUERS.contains(iss)) {
+            throw new RuntimeException("Token issuer mismatch");
+        }
+
+        // tokeninfo returns exp as a string, a signed JWT as a number; getAsLong handles both
+        if (!claims.has("exp")) {
+            throw new RuntimeException("Token has no expiry");
+        }
+        Instant expiresAt = Instant.ofEpochSecond(claims.get("exp").getAsLong());
+        if (Instant.now().minusSeconds(CLOCK_SKEW_SECONDS).isAfter(expiresAt)) {
+            throw new RuntimeException("Token expired");
+        }
+
+        if (!claims.has("email")) {
+            throw new RuntimeException("Token has no email claim");
+        }
+
+        return new VerifiedToken(claims.get("email").getAsString(), expiresAt);
     }
 
     /**
@@ -117,6 +249,18 @@ public class TokenService {
         return tokenStore.containsKey(email);
     }
 
+    // Tags for the verification timer, filled in as verification proceeds
+    private static final class Verification {
+        private String method = "local";
+        private String outcome = "failure";
+    }
+
+    /**
+     * Identity and expiry of a verified ID token
+     */
+    public record VerifiedToken(String email, Instant expiresAt) {
+    }
+
     /**
      * Token data holder
      */
@@ -0,0 +1,99 @@
+package com.harsh.fullstackbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of already verified ID tokens, so a session's cookie is only parsed and
+ * verified once. Entries are keyed by a SHA-256 of the token and expire at the token's exp.
+ * Hit, miss and eviction counters are published as {@code cache.*} metrics named "idTokens".
+ */
+@Component
+public class TokenVerificationCache {
+
+    private final TokenService tokenService;
+    private final Cache<String, TokenService.VerifiedToken> cache;
+
+    public TokenVerificationCache(TokenService tokenService,
+            MeterRegistry meterRegistry,
+            @Value("${app.token-cache.maximum-size:10000}") long maximumSize) {
+        this.tokenService = tokenService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idTokens");
+    }
+
+    /**
+     * Return the verified identity for the token, verifying it only on a cache miss.
+     * Tokens that fail verification are not cached.
+     */
+    public TokenService.VerifiedToken verify(String idToken) throws Exception {
+        String key = hash(idToken);
+        TokenService.VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        TokenService.VerifiedToken verified = tokenService.verifyToken(idToken);
+        cache.put(key, verified);
+        return verified;
+    }
+
+    /**
+     * Drop a token from the cache, e.g. on sign-out.
+     */
+    public void invalidate(String idToken) {
+        cache.invalidate(hash(idToken));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    private static String hash(String idToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(idToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<String, TokenService.VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenService.VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenService.VerifiedToken value, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenService.VerifiedToken value, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
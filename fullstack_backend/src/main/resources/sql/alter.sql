@@ -32,4 +32,9 @@
 -- CREATE INDEX idx_student_roll_number ON Students(roll_number);
 -- CREATE INDEX idx_domain_id ON Students(domain_id);
 
+-- =======================
+--   Modify photo_blobs Table
+-- =======================
 
+-- When a reference was last added (NULL for rows written before the column existed)
+-- ALTER TABLE photo_blobs ADD COLUMN referenced_at TIMESTAMP NULL;
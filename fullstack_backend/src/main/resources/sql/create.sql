@@ -19,6 +19,8 @@ CREATE TABLE if not exists Students (
     last_name VARCHAR(50),
     email VARCHAR(100) UNIQUE NOT NULL,
     photograph_path VARCHAR(255),
+    photograph_content_type VARCHAR(100),
+    photograph_sha256 CHAR(64),
     total_credits INT,
     graduation_year INT,
     domain_id INT,
@@ -26,3 +28,59 @@ CREATE TABLE if not exists Students (
     placement_id INT,
     FOREIGN KEY (domain_id) REFERENCES Domains(domain_id)
 );
+-- Lets the photo garbage collector confirm a file is unreferenced without scanning Students
+CREATE INDEX idx_students_photograph_path ON Students (photograph_path);
+
+-- =======================
+--   TABLE: roll_number_sequences
+-- =======================
+-- Next unreserved roll number sequence per prefix (e.g. MT25), advanced a block at a time
+CREATE TABLE if not exists roll_number_sequences (
+    prefix VARCHAR(8) PRIMARY KEY,
+    next_value INT NOT NULL
+);
+
+-- =======================
+--   TABLE: catalog_versions
+-- =======================
+-- Change counter per cached reference table, bumped with every change and polled by each node
+CREATE TABLE if not exists catalog_versions (
+    name VARCHAR(32) PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+-- =======================
+--   TABLE: photo_blobs
+-- =======================
+-- One row per stored photograph file (named by its SHA-256) with the number of students using it.
+-- A row at ref_count 0 marks a file queued in photo_deletions; it is removed with the file.
+-- referenced_at is when a reference was last added, so a count nobody took back can be told
+-- apart from an upload whose student row is still being written.
+CREATE TABLE if not exists photo_blobs (
+    sha256 CHAR(64) PRIMARY KEY,
+    ref_count INT NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    referenced_at TIMESTAMP NULL
+);
+
+-- =======================
+--   TABLE: photo_deletions
+-- =======================
+-- Released photograph files waiting for PhotoJanitor, retried with backoff until deleted
+CREATE TABLE if not exists photo_deletions (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    location VARCHAR(255) NOT NULL,
+    attempts INT NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500)
+);
+CREATE INDEX idx_photo_deletions_next_attempt ON photo_deletions (next_attempt_at);
+
+-- =======================
+--   TABLE: domain_seats
+-- =======================
+-- Seats taken per domain, admitted against Domains.capacity with one conditional update
+CREATE TABLE if not exists domain_seats (
+    domain_id INT PRIMARY KEY,
+    seats_taken INT NOT NULL
+);
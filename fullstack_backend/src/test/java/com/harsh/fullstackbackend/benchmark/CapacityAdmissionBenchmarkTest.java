@@ -0,0 +1,144 @@
+package com.harsh.fullstackbackend.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.harsh.fullstackbackend.dto.DomainRequest;
+import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.dto.StudentRequest;
+import com.harsh.fullstackbackend.exception.DomainFullException;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import com.harsh.fullstackbackend.service.DomainService;
+import com.harsh.fullstackbackend.service.StudentService;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Releases hundreds of concurrent registrations at one domain at the same instant, once with
+ * a capacity well below the burst and once with room for everyone, and reports throughput and
+ * latency for admitted and refused registrations. The capped run must admit exactly its
+ * capacity. Results go to target/benchmarks/capacity-admission.json.
+ *
+ * Run with: mvn test -Dtest=CapacityAdmissionBenchmarkTest -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest
+class CapacityAdmissionBenchmarkTest {
+
+    private static final int REGISTRATIONS = 400;
+    private static final int CAPACITY = 100;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private DomainService domainService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void burstAgainstOneDomain() throws Exception {
+        JsonArray runs = new JsonArray();
+        runs.add(run("capped", CAPACITY, "2041"));
+        runs.add(run("uncapped", REGISTRATIONS, "2042"));
+
+        JsonObject report = new JsonObject();
+        report.addProperty("registrations", REGISTRATIONS);
+        report.add("runs", runs);
+        Path output = Files.createDirectories(Path.of("target", "benchmarks")).resolve("capacity-admission.json");
+        Files.writeString(output, new GsonBuilder().setPrettyPrinting().create().toJson(report));
+    }
+
+    private JsonObject run(String name, int capacity, String batch) throws Exception {
+        DomainResponse domain = domainService.createDomain(new DomainRequest("Admission Rush", batch, capacity, "Rush"));
+        long[] admitted = new long[REGISTRATIONS];
+        long[] refused = new long[REGISTRATIONS];
+        AtomicInteger admittedCount = new AtomicInteger();
+        AtomicInteger refusedCount = new AtomicInteger();
+        AtomicReference<Throwable> unexpected = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long started;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                StudentRequest request = new StudentRequest("Rush", "Hour", "%s-rush%d@example.com".formatted(name, i),
+                        8.0, 80, 2041, domain.id(), null, null);
+                MockMultipartFile photograph = new MockMultipartFile("photograph", "photo.jpg", "image/jpeg",
+                        ("rush-" + i).getBytes(StandardCharsets.UTF_8));
+                clients.submit(() -> {
+                    start.await();
+                    long sent = System.nanoTime();
+                    try {
+                        studentService.createStudent(request, photograph);
+                        admitted[admittedCount.getAndIncrement()] = System.nanoTime() - sent;
+                    } catch (DomainFullException e) {
+                        refused[refusedCount.getAndIncrement()] = System.nanoTime() - sent;
+                    } catch (Throwable e) {
+                        unexpected.compareAndSet(null, e);
+                    }
+                    return null;
+                });
+            }
+            started = System.nanoTime();
+            start.countDown();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        assertNull(unexpected.get());
+        assertEquals(capacity, admittedCount.get(), "admitted in the %s run".formatted(name));
+        assertEquals(REGISTRATIONS - capacity, refusedCount.get());
+
+        JsonObject result = new JsonObject();
+        result.addProperty("run", name);
+        result.addProperty("capacity", capacity);
+        result.addProperty("seconds", seconds);
+        result.addProperty("registrationsPerSecond", REGISTRATIONS / seconds);
+        result.add("admitted", latencies(Arrays.copyOf(admitted, admittedCount.get())));
+        result.add("refused", latencies(Arrays.copyOf(refused, refusedCount.get())));
+        return result;
+    }
+
+    private static JsonObject latencies(long[] nanos) {
+        Arrays.sort(nanos);
+        JsonObject result = new JsonObject();
+        result.addProperty("count", nanos.length);
+        if (nanos.length > 0) {
+            result.addProperty("p50Ms", percentile(nanos, 0.50));
+            result.addProperty("p99Ms", percentile(nanos, 0.99));
+            result.addProperty("maxMs", nanos[nanos.length - 1] / 1e6);
+        }
+        return result;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
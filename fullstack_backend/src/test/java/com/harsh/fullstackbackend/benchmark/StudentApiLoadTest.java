@@ -0,0 +1,471 @@
+package com.harsh.fullstackbackend.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.harsh.fullstackbackend.FullstackBackendApplication;
+import com.harsh.fullstackbackend.support.StubGoogleServer;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end load test. Boots the application on a random port against its own embedded database,
+ * with a StubGoogleServer standing in for Google's token, tokeninfo and JWKS endpoints, signs in
+ * through /oauth2/callback once, then has concurrent clients drive a weighted mix of list,
+ * detail, photo, create, update and delete requests for a fixed time. Clients only update and
+ * delete students they created themselves, so the mix runs without conflicts. Throughput and
+ * latency percentiles per operation go to target/benchmarks/load-test.json.
+ *
+ * Run with: mvn test -Dtest=StudentApiLoadTest -Dloadtest=true
+ *
+ * Settings (system properties): load.clients (16), load.warmup (PT5S), load.duration (PT20S),
+ * load.seed-students (200) and load.mix (list=40,detail=30,photo=15,create=5,update=5,delete=5).
+ * Release gates: load.max-error-rate (0) and load.max-p99-ms (off) apply to every operation;
+ * load.baseline names an earlier report, and the run fails when any operation's p99 or
+ * throughput is more than load.max-regression (0.25) worse than it was there.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class StudentApiLoadTest {
+
+    private static final String CLIENT_ID = "test-client-id";
+    private static final String ADMIN_EMAIL = "admin@example.com";
+
+    private final int clients = Integer.getInteger("load.clients", 16);
+    private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT20S"));
+    private final int seedStudents = Integer.getInteger("load.seed-students", 200);
+    private final String mixSpec =
+            System.getProperty("load.mix", "list=40,detail=30,photo=15,create=5,update=5,delete=5");
+    private final Map<Operation, Integer> mix = parseMix(mixSpec);
+
+    private enum Operation {
+        LIST, DETAIL, PHOTO, CREATE, UPDATE, DELETE;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        Path uploads = Files.createTempDirectory("load-test-photos");
+        try (StubGoogleServer google = new StubGoogleServer(CLIENT_ID);
+                ConfigurableApplicationContext context = start(google, uploads)) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            Api api = new Api(URI.create("http://127.0.0.1:" + port),
+                    HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build());
+            api.signIn(google.issueAuthCode(ADMIN_EMAIL));
+
+            long domainId = api.createDomain();
+            List<Long> seeded = new ArrayList<>();
+            byte[] seedPhoto = photo(Color.GRAY);
+            for (int i = 0; i < seedStudents; i++) {
+                seeded.add(api.createStudent(domainId, "seed%d@example.com".formatted(i), seedPhoto));
+            }
+
+            long measureFrom = System.nanoTime() + warmup.toNanos();
+            long stopAt = measureFrom + duration.toNanos();
+            List<Client> running = new ArrayList<>();
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < clients; c++) {
+                    // A distinct image per client, so uploads are not all deduplicated into one blob
+                    Color color = Color.getHSBColor((float) c / clients, 0.6f, 0.9f);
+                    Client client = new Client(c, api, domainId, List.copyOf(seeded), photo(color));
+                    running.add(client);
+                    futures.add(pool.submit(() -> client.run(measureFrom, stopAt)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            JsonObject report = report(running);
+            Path output = Files.createDirectories(Path.of("target", "benchmarks")).resolve("load-test.json");
+            Files.writeString(output, new GsonBuilder().setPrettyPrinting().create().toJson(report));
+            checkGates(report, running);
+        } finally {
+            try (var files = Files.walk(uploads)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(StubGoogleServer google, Path uploads) {
+        // Command-line arguments, so they win over the test application.properties
+        return new SpringApplicationBuilder(FullstackBackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--app.upload-dir=" + uploads,
+                        "--app.admin-email=" + ADMIN_EMAIL,
+                        "--app.google.jwks-uri=" + google.jwksUri(),
+                        "--app.google.tokeninfo-uri=" + google.tokenInfoUri(),
+                        "--app.google.token-uri=" + google.tokenUri(),
+                        "--app.google.client-id=" + CLIENT_ID);
+    }
+
+    /**
+     * One simulated user: picks operations by weight until the deadline and keeps latencies
+     * (nanoseconds) of requests sent after the warm-up.
+     */
+    private final class Client {
+
+        private final int number;
+        private final Api api;
+        private final long domainId;
+        private final List<Long> seeded;
+        private final byte[] photo;
+        private final Deque<Long> own = new ArrayDeque<>();
+        private final Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+        private final Map<Operation, Integer> errors = new EnumMap<>(Operation.class);
+        private String firstError;
+        private int created;
+
+        Client(int number, Api api, long domainId, List<Long> seeded, byte[] photo) {
+            this.number = number;
+            this.api = api;
+            this.domainId = domainId;
+            this.seeded = seeded;
+            this.photo = photo;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new long[1024]);
+                counts.put(operation, 0);
+                errors.put(operation, 0);
+            }
+        }
+
+        void run(long measureFrom, long stopAt) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < stopAt) {
+                Operation operation = pick(random);
+                if ((operation == Operation.UPDATE || operation == Operation.DELETE) && own.isEmpty()) {
+                    operation = Operation.CREATE;
+                }
+                long sent = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = perform(operation, random);
+                } catch (IOException e) {
+                    ok = false;
+                    firstError = firstError == null ? operation.key() + ": " + e : firstError;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (sent >= measureFrom) {
+                    record(operation, System.nanoTime() - sent, ok);
+                }
+            }
+        }
+
+        private boolean perform(Operation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+            long seededId = seeded.get(random.nextInt(seeded.size()));
+            return switch (operation) {
+                case LIST -> check(operation, api.get("/api/students?limit=50"), 200);
+                case DETAIL -> check(operation, api.get("/api/students/" + seededId), 200);
+                case PHOTO -> check(operation, api.get("/api/students/%d/photo?size=%s"
+                        .formatted(seededId, random.nextBoolean() ? "thumb" : "original")), 200);
+                case CREATE -> {
+                    created++;
+                    own.push(api.createStudent(domainId, "load%d-%d@example.com".formatted(number, created), photo));
+                    yield true;
+                }
+                case UPDATE -> check(operation, api.updateStudent(own.peek(), domainId,
+                        "load%d-%d-renamed@example.com".formatted(number, ++created)), 200);
+                case DELETE -> check(operation, api.delete("/api/students/" + own.pop()), 204);
+            };
+        }
+
+        private boolean check(Operation operation, HttpResponse<?> response, int expected) {
+            if (response.statusCode() == expected) {
+                return true;
+            }
+            if (firstError == null) {
+                firstError = "%s: HTTP %d %s".formatted(operation.key(), response.statusCode(), response.body());
+            }
+            return false;
+        }
+
+        private void record(Operation operation, long nanos, boolean ok) {
+            int count = counts.get(operation);
+            long[] samples = latencies.get(operation);
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+                latencies.put(operation, samples);
+            }
+            samples[count] = nanos;
+            counts.put(operation, count + 1);
+            if (!ok) {
+                errors.merge(operation, 1, Integer::sum);
+            }
+        }
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private JsonObject report(List<Client> running) {
+        JsonObject operations = new JsonObject();
+        long[] all = new long[0];
+        int allErrors = 0;
+        double seconds = duration.toNanos() / 1e9;
+        for (Operation operation : Operation.values()) {
+            long[] samples = new long[0];
+            int errors = 0;
+            for (Client client : running) {
+                samples = concat(samples, Arrays.copyOf(client.latencies.get(operation), client.counts.get(operation)));
+                errors += client.errors.get(operation);
+            }
+            if (samples.length > 0) {
+                operations.add(operation.key(), summary(samples, errors, seconds));
+            }
+            all = concat(all, samples);
+            allErrors += errors;
+        }
+
+        JsonObject report = new JsonObject();
+        report.addProperty("clients", clients);
+        report.addProperty("warmupSeconds", warmup.toSeconds());
+        report.addProperty("durationSeconds", duration.toSeconds());
+        report.addProperty("seedStudents", seedStudents);
+        report.addProperty("mix", mixSpec);
+        report.add("total", summary(all, allErrors, seconds));
+        report.add("operations", operations);
+        return report;
+    }
+
+    private static JsonObject summary(long[] samples, int errors, double seconds) {
+        Arrays.sort(samples);
+        JsonObject summary = new JsonObject();
+        summary.addProperty("requests", samples.length);
+        summary.addProperty("errors", errors);
+        summary.addProperty("throughputPerSecond", samples.length / seconds);
+        summary.addProperty("p50Ms", percentile(samples, 0.50));
+        summary.addProperty("p90Ms", percentile(samples, 0.90));
+        summary.addProperty("p99Ms", percentile(samples, 0.99));
+        summary.addProperty("maxMs", samples.length == 0 ? 0 : samples[samples.length - 1] / 1e6);
+        return summary;
+    }
+
+    private static void checkGates(JsonObject report, List<Client> running) throws IOException {
+        List<String> violations = new ArrayList<>();
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0"));
+        String maxP99 = System.getProperty("load.max-p99-ms");
+        String baselinePath = System.getProperty("load.baseline");
+        double maxRegression = Double.parseDouble(System.getProperty("load.max-regression", "0.25"));
+        JsonObject baseline = baselinePath == null ? null
+                : JsonParser.parseString(Files.readString(Path.of(baselinePath))).getAsJsonObject()
+                        .getAsJsonObject("operations");
+
+        JsonObject operations = report.getAsJsonObject("operations");
+        for (String operation : operations.keySet()) {
+            JsonObject current = operations.getAsJsonObject(operation);
+            double errorRate = current.get("errors").getAsDouble() / current.get("requests").getAsDouble();
+            if (errorRate > maxErrorRate) {
+                violations.add("%s error rate %.4f above %.4f".formatted(operation, errorRate, maxErrorRate));
+            }
+            double p99 = current.get("p99Ms").getAsDouble();
+            if (maxP99 != null && p99 > Double.parseDouble(maxP99)) {
+                violations.add("%s p99 %.1f ms above %s ms".formatted(operation, p99, maxP99));
+            }
+            if (baseline != null && baseline.has(operation)) {
+                JsonObject previous = baseline.getAsJsonObject(operation);
+                double previousP99 = previous.get("p99Ms").getAsDouble();
+                double previousThroughput = previous.get("throughputPerSecond").getAsDouble();
+                double throughput = current.get("throughputPerSecond").getAsDouble();
+                if (p99 > previousP99 * (1 + maxRegression)) {
+                    violations.add("%s p99 %.1f ms regressed from %.1f ms".formatted(operation, p99, previousP99));
+                }
+                if (throughput < previousThroughput * (1 - maxRegression)) {
+                    violations.add("%s throughput %.1f/s regressed from %.1f/s"
+                            .formatted(operation, throughput, previousThroughput));
+                }
+            }
+        }
+        String firstError = running.stream().map(client -> client.firstError)
+                .filter(error -> error != null).findFirst().orElse("none");
+        assertTrue(violations.isEmpty(), String.join("; ", violations) + "; first error: " + firstError);
+    }
+
+    /**
+     * The endpoints the clients call, all authenticated with the admin's ID token cookie.
+     */
+    private static final class Api {
+
+        private final URI base;
+        private final HttpClient http;
+        private String cookie;
+
+        Api(URI base, HttpClient http) {
+            this.base = base;
+            this.http = http;
+        }
+
+        /**
+         * The real sign-in: /oauth2/callback exchanges the code with the stub token endpoint,
+         * verifies the ID token and sets it as a cookie.
+         */
+        void signIn(String authCode) throws IOException, InterruptedException {
+            HttpResponse<Void> response = http.send(HttpRequest.newBuilder(base.resolve("/oauth2/callback?code=" + authCode))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            cookie = response.headers().allValues("Set-Cookie").stream()
+                    .filter(header -> header.startsWith("google_id_token="))
+                    .map(header -> header.substring(0, header.indexOf(';')))
+                    .findFirst().orElse(null);
+            assertNotNull(cookie, "sign-in redirected to " + response.headers().firstValue("Location").orElse("?"));
+        }
+
+        long createDomain() throws IOException, InterruptedException {
+            JsonObject domain = new JsonObject();
+            domain.addProperty("program", "Load Testing");
+            domain.addProperty("batch", "2030");
+            domain.addProperty("capacity", 1_000_000);
+            domain.addProperty("qualification", "M.Tech");
+            HttpResponse<String> response = send(request("/api/domains")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(domain.toString())));
+            assertEquals(201, response.statusCode(), response.body());
+            return JsonParser.parseString(response.body()).getAsJsonObject().get("id").getAsLong();
+        }
+
+        long createStudent(long domainId, String email, byte[] photo) throws IOException, InterruptedException {
+            String boundary = UUID.randomUUID().toString();
+            HttpResponse<String> response = send(request("/api/students")
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(multipart(boundary, studentJson(domainId, email), photo)));
+            if (response.statusCode() != 201) {
+                throw new IOException("HTTP %d %s".formatted(response.statusCode(), response.body()));
+            }
+            return JsonParser.parseString(response.body()).getAsJsonObject().get("id").getAsLong();
+        }
+
+        HttpResponse<String> updateStudent(long id, long domainId, String email) throws IOException, InterruptedException {
+            String boundary = UUID.randomUUID().toString();
+            return send(request("/api/students/" + id)
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .PUT(multipart(boundary, studentJson(domainId, email), null)));
+        }
+
+        HttpResponse<String> get(String path) throws IOException, InterruptedException {
+            return send(request(path).GET());
+        }
+
+        HttpResponse<String> delete(String path) throws IOException, InterruptedException {
+            return send(request(path).DELETE());
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(base.resolve(path)).header("Cookie", cookie);
+        }
+
+        private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        private static String studentJson(long domainId, String email) {
+            JsonObject student = new JsonObject();
+            student.addProperty("firstName", "Load");
+            student.addProperty("lastName", "Test");
+            student.addProperty("email", email);
+            student.addProperty("cgpa", ThreadLocalRandom.current().nextInt(50, 100) / 10.0);
+            student.addProperty("totalCredits", 80);
+            student.addProperty("graduationYear", 2030);
+            student.addProperty("domainId", domainId);
+            return student.toString();
+        }
+
+        private static HttpRequest.BodyPublisher multipart(String boundary, String studentJson, byte[] photo) {
+            List<byte[]> parts = new ArrayList<>();
+            parts.add(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"student\"\r\n\r\n"
+                    + studentJson + "\r\n").getBytes(StandardCharsets.UTF_8));
+            if (photo != null) {
+                parts.add(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"photograph\"; "
+                        + "filename=\"photo.png\"\r\nContent-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                parts.add(photo);
+                parts.add("\r\n".getBytes(StandardCharsets.UTF_8));
+            }
+            parts.add(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+            return HttpRequest.BodyPublishers.ofByteArrays(parts);
+        }
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split("=");
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    private static byte[] photo(Color color) throws IOException {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, 640, 480);
+        graphics.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        return png.toByteArray();
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,168 @@
+package com.harsh.fullstackbackend.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.harsh.fullstackbackend.FullstackBackendApplication;
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import com.harsh.fullstackbackend.support.StubGoogleServer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application once with platform threads and once with virtual threads and drives
+ * GET /api/students/{id} with many concurrent clients. Every request carries a fresh token signed
+ * by a key missing from the JWKS, so each one blocks on the stub tokeninfo endpoint, the way a
+ * request blocks on any slow downstream call. Results go to target/benchmarks/threading-modes.json.
+ *
+ * Run with: mvn test -Dtest=ThreadingModeBenchmarkTest -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ThreadingModeBenchmarkTest {
+
+    private static final String CLIENT_ID = "test-client-id";
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 5;
+    private static final Duration TOKEN_INFO_LATENCY = Duration.ofMillis(50);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        JsonArray runs = new JsonArray();
+        try (StubGoogleServer google = new StubGoogleServer(CLIENT_ID)) {
+            google.addUnpublishedKey("unpublished");
+            google.setTokenInfoLatency(TOKEN_INFO_LATENCY);
+            for (boolean virtual : new boolean[] {false, true}) {
+                runs.add(run(google, virtual));
+            }
+        }
+
+        JsonObject report = new JsonObject();
+        report.addProperty("clients", CLIENTS);
+        report.addProperty("requestsPerClient", REQUESTS_PER_CLIENT);
+        report.addProperty("tokenInfoLatencyMs", TOKEN_INFO_LATENCY.toMillis());
+        report.add("runs", runs);
+        Path output = Files.createDirectories(Path.of("target", "benchmarks")).resolve("threading-modes.json");
+        Files.writeString(output, new GsonBuilder().setPrettyPrinting().create().toJson(report));
+    }
+
+    private JsonObject run(StubGoogleServer google, boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FullstackBackendApplication.class)
+                // Command-line arguments, so they win over the test application.properties
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=50",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + virtual + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+                        "--app.google.jwks-uri=" + google.jwksUri(),
+                        "--app.google.tokeninfo-uri=" + google.tokenInfoUri(),
+                        "--app.google.token-uri=" + google.tokenUri(),
+                        "--app.google.client-id=" + CLIENT_ID)) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://127.0.0.1:%d/api/students/%d".formatted(port, seedStudent(context)));
+
+            // Signing is slow enough to distort timings, so every token is minted up front
+            String[] tokens = new String[CLIENTS * REQUESTS_PER_CLIENT];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = google.mintToken("unpublished", "bench%d@example.com".formatted(i), CLIENT_ID,
+                        StubGoogleServer.ISSUER, Instant.now().plusSeconds(3600));
+            }
+
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            long[] latencies = new long[tokens.length];
+            AtomicInteger errors = new AtomicInteger();
+            AtomicReference<String> firstError = new AtomicReference<>();
+            long started = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> running = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    int first = c * REQUESTS_PER_CLIENT;
+                    running.add(clients.submit(() -> {
+                        for (int i = first; i < first + REQUESTS_PER_CLIENT; i++) {
+                            HttpRequest request = HttpRequest.newBuilder(uri)
+                                    .header("Cookie", "google_id_token=" + tokens[i])
+                                    .build();
+                            long sent = System.nanoTime();
+                            try {
+                                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                                if (status != 200) {
+                                    errors.incrementAndGet();
+                                    firstError.compareAndSet(null, "HTTP " + status);
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                                firstError.compareAndSet(null, e.toString());
+                            }
+                            latencies[i] = System.nanoTime() - sent;
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : running) {
+                    future.get();
+                }
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            assertEquals(0, errors.get(), "failed requests with virtual threads %s, first: %s"
+                    .formatted(virtual, firstError.get()));
+            Arrays.sort(latencies);
+            JsonObject result = new JsonObject();
+            result.addProperty("virtualThreads", virtual);
+            result.addProperty("requests", latencies.length);
+            result.addProperty("seconds", seconds);
+            result.addProperty("throughputPerSecond", latencies.length / seconds);
+            result.addProperty("p50Ms", percentile(latencies, 0.50));
+            result.addProperty("p99Ms", percentile(latencies, 0.99));
+            return result;
+        }
+    }
+
+    private static long seedStudent(ConfigurableApplicationContext context) {
+        Domain domain = new Domain();
+        domain.setProgram("M.Tech CSE");
+        domain.setBatch("2025");
+        domain.setCapacity(60);
+        domain.setQualification("M.Tech");
+        domain = context.getBean(DomainRepository.class).save(domain);
+
+        Student student = new Student();
+        student.setDomain(domain);
+        student.setRollNumber("MT25001");
+        student.setFirstName("Bench");
+        student.setLastName("Mark");
+        student.setEmail("bench@example.com");
+        student.setCgpa(8.0);
+        student.setTotalCredits(80);
+        student.setGraduationYear(2025);
+        return context.getBean(StudentRepository.class).save(student).getId();
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
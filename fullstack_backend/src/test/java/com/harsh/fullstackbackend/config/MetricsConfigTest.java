@@ -0,0 +1,48 @@
+package com.harsh.fullstackbackend.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsConfigTest {
+
+    private PrometheusMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MetricsConfig().serviceLevelObjectives());
+    }
+
+    @Test
+    void publishesSloBucketsForRequestAndTokenTimers() {
+        Timer.builder("http.server.requests").tag("uri", "/api/students").register(registry)
+                .record(Duration.ofMillis(40));
+        Timer.builder("auth.token.verifications").tag("method", "local").register(registry)
+                .record(Duration.ofMillis(2));
+
+        String scrape = registry.scrape();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{uri=\"/api/students\",le=\"0.05\",} 1.0"));
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{uri=\"/api/students\",le=\"0.025\",} 0.0"));
+        assertTrue(scrape.contains("auth_token_verifications_seconds_bucket{method=\"local\",le=\"0.025\",} 1.0"));
+    }
+
+    @Test
+    void bucketsPhotographSizesAndLeavesOtherMetersAlone() {
+        DistributionSummary.builder("photos.served.bytes").baseUnit("bytes").register(registry).record(20_000);
+        Timer.builder("jvm.gc.pause").register(registry).record(Duration.ofMillis(5));
+
+        String scrape = registry.scrape();
+
+        assertTrue(scrape.contains("photos_served_bytes_bucket{le=\"65536.0\",} 1.0"));
+        assertFalse(scrape.contains("jvm_gc_pause_seconds_bucket"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.harsh.fullstackbackend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+class MultipartStreamTest {
+
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=XyZ";
+
+    @Test
+    void readsPartsInOrderAndSkipsUnreadContent() throws IOException {
+        byte[] photo = new byte[40_000];
+        for (int i = 0; i < photo.length; i++) {
+            photo[i] = (byte) (i % 251);
+        }
+        byte[] body = concat(
+                "preamble to ignore\r\n--XyZ\r\nContent-Disposition: form-data; name=\"note\"\r\n\r\nskipped\r\n",
+                "--XyZ\r\nContent-Disposition: form-data; name=\"student\"\r\n\r\n{\"firstName\":\"Asha\"}\r\n",
+                "--XyZ\r\nContent-Disposition: form-data; name=\"photograph\"; filename=\"asha.jpg\"\r\n"
+                        + "Content-Type: image/jpeg\r\n\r\n");
+        body = concat(body, photo, "\r\n--XyZ--\r\n".getBytes(StandardCharsets.US_ASCII));
+
+        // One byte at a time, so every delimiter straddles a read
+        MultipartStream stream = new MultipartStream(new Trickle(body, 1), CONTENT_TYPE, body.length);
+        MultipartStream.Part note = stream.next();
+        assertEquals("note", note.name());
+
+        MultipartStream.Part student = stream.next();
+        assertEquals("student", student.name());
+        assertEquals("{\"firstName\":\"Asha\"}", new String(student.readAll(1024), StandardCharsets.UTF_8));
+
+        MultipartStream.Part photograph = stream.next();
+        assertEquals("photograph", photograph.name());
+        assertEquals("asha.jpg", photograph.filename());
+        assertEquals("image/jpeg", photograph.contentType());
+        assertArrayEquals(photo, photograph.content().readAllBytes());
+
+        assertNull(stream.next());
+        assertNull(stream.next());
+    }
+
+    @Test
+    void contentThatLooksLikeADelimiterIsKept() throws IOException {
+        String value = "a\r\n--XyQ\r\n--Xy";
+        byte[] body = concat("--XyZ\r\nContent-Disposition: form-data; name=\"student\"\r\n\r\n" + value + "\r\n--XyZ--");
+
+        MultipartStream stream = new MultipartStream(new Trickle(body, 3), CONTENT_TYPE, body.length);
+        assertEquals(value, new String(stream.next().readAll(1024), StandardCharsets.UTF_8));
+        assertNull(stream.next());
+    }
+
+    @Test
+    void refusesTruncatedAndOversizedBodies() throws IOException {
+        byte[] truncated = concat("--XyZ\r\nContent-Disposition: form-data; name=\"photograph\"\r\n\r\nhalf a photo");
+        MultipartStream stream = new MultipartStream(new ByteArrayInputStream(truncated), CONTENT_TYPE, 1024);
+        InputStream content = stream.next().content();
+        assertThrows(IOException.class, content::readAllBytes);
+
+        byte[] oversized = concat(
+                "--XyZ\r\nContent-Disposition: form-data; name=\"photograph\"\r\n\r\n" + "x".repeat(50_000) + "\r\n--XyZ--");
+        MultipartStream limited = new MultipartStream(new ByteArrayInputStream(oversized), CONTENT_TYPE, 20_000);
+        InputStream limitedContent = limited.next().content();
+        assertThrows(MaxUploadSizeExceededException.class, limitedContent::readAllBytes);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new MultipartStream(new ByteArrayInputStream(truncated), "multipart/form-data", 1024));
+    }
+
+    private static byte[] concat(Object... pieces) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Object piece : pieces) {
+            out.writeBytes(piece instanceof byte[] bytes ? bytes : piece.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Hands out at most chunk bytes per read, like a slow network.
+     */
+    private static final class Trickle extends FilterInputStream {
+
+        private final int chunk;
+
+        Trickle(byte[] body, int chunk) {
+            super(new ByteArrayInputStream(body));
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return super.read(buffer, offset, Math.min(chunk, length));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.harsh.fullstackbackend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.dto.StudentRequest;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.exception.GlobalExceptionHandler;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import com.harsh.fullstackbackend.service.StudentService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@SpringBootTest
+class StudentPhotoControllerTest {
+
+    private static final byte[] PHOTO = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private StudentController studentController;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+    private StudentResponse student;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(studentController)
+                .setControllerAdvice(globalExceptionHandler)
+                .build();
+        Domain domain = new Domain();
+        domain.setProgram("M.Tech CSE");
+        domain.setBatch("2025");
+        domain.setCapacity(60);
+        domain.setQualification("M.Tech");
+        domain = domainRepository.save(domain);
+        student = studentService.createStudent(
+                new StudentRequest("Asha", "Rao", "asha@example.com", 8.1, 80, 2025, domain.getId(), null, null),
+                new MockMultipartFile("photograph", "asha.png", "image/png", PHOTO));
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void servesPhotoWithStoredTypeAndValidators() throws Exception {
+        String etag = "\"" + student.photographVersion() + "\"";
+        assertEquals(64, student.photographVersion().length());
+
+        MvcResult result = mockMvc.perform(get("/api/students/{id}/photo", student.id()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(PHOTO))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn();
+
+        mockMvc.perform(get("/api/students/{id}/photo", student.id()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/students/{id}/photo", student.id())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/students/{id}/photo", student.id()).param("v", student.photographVersion()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable"));
+    }
+
+    @Test
+    void recordsBytesServedPerRendition() throws Exception {
+        double before = servedBytes("original");
+
+        mockMvc.perform(get("/api/students/{id}/photo", student.id())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/students/{id}/photo", student.id()).header(HttpHeaders.RANGE, "bytes=5-9"))
+                .andExpect(status().isPartialContent());
+        mockMvc.perform(get("/api/students/{id}/photo", student.id())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + student.photographVersion() + "\""))
+                .andExpect(status().isNotModified());
+
+        assertEquals(before + PHOTO.length + 5, servedBytes("original"));
+        assertTrue(meterRegistry.get("photos.served").tags("size", "original", "outcome", "success").timer().count() >= 3);
+        assertTrue(meterRegistry.get("photos.stored.bytes").summary().count() >= 1);
+    }
+
+    @Test
+    void timesFailedLookups() throws Exception {
+        Timer timer = meterRegistry.find("photos.served").tags("size", "original", "outcome", "error").timer();
+        long before = timer == null ? 0 : timer.count();
+
+        mockMvc.perform(get("/api/students/{id}/photo", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        assertEquals(before + 1,
+                meterRegistry.get("photos.served").tags("size", "original", "outcome", "error").timer().count());
+    }
+
+    private double servedBytes(String size) {
+        DistributionSummary summary = meterRegistry.find("photos.served.bytes").tag("size", size).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    @Test
+    void servesSingleByteRanges() throws Exception {
+        mockMvc.perform(get("/api/students/{id}/photo", student.id()).header(HttpHeaders.RANGE, "bytes=5-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+                .andExpect(content().bytes("56789".getBytes(StandardCharsets.US_ASCII)));
+
+        mockMvc.perform(get("/api/students/{id}/photo", student.id()).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes("hij".getBytes(StandardCharsets.US_ASCII)));
+
+        mockMvc.perform(get("/api/students/{id}/photo", student.id()).header(HttpHeaders.RANGE, "bytes=50-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+
+        // A stale If-Range falls back to the whole photo
+        mockMvc.perform(get("/api/students/{id}/photo", student.id())
+                        .header(HttpHeaders.RANGE, "bytes=5-9")
+                        .header(HttpHeaders.IF_RANGE, "\"" + HexFormat.of().formatHex(new byte[32]) + "\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(PHOTO));
+    }
+
+    @Test
+    void servesThumbnailsOnceRenderedAndTheOriginalUntilThen() throws Exception {
+        BufferedImage image = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        StudentResponse withImage = studentService.createStudent(
+                new StudentRequest("Ravi", "Kumar", "ravi@example.com", 7.4, 80, 2025, student.domainId(), null, null),
+                new MockMultipartFile("photograph", "ravi.png", "image/png", png.toByteArray()));
+
+        // The original stands in for a missing rendition, but never as an immutable copy of it
+        mockMvc.perform(get("/api/students/{id}/photo", student.id())
+                        .param("size", "thumb").param("v", student.photographVersion()))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(PHOTO))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"));
+
+        MvcResult thumb = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            MvcResult result = mockMvc.perform(get("/api/students/{id}/photo", withImage.id()).param("size", "thumb"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            if ("image/jpeg".equals(result.getResponse().getContentType())) {
+                thumb = result;
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertNotNull(thumb, "thumbnail was not rendered");
+        assertEquals("\"" + withImage.photographVersion() + "-thumb\"", thumb.getResponse().getHeader(HttpHeaders.ETAG));
+        BufferedImage rendered = ImageIO.read(new ByteArrayInputStream(thumb.getResponse().getContentAsByteArray()));
+        assertEquals(96, rendered.getWidth());
+        assertEquals(64, rendered.getHeight());
+
+        mockMvc.perform(get("/api/students/{id}/photo", withImage.id()).param("size", "huge"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void backfillsMetadataForPhotosStoredWithoutIt() throws Exception {
+        Path legacy = Files.createTempFile("legacy-", ".png");
+        Files.write(legacy, PHOTO);
+        studentRepository.findById(student.id()).ifPresent(entity -> {
+            entity.setPhotographPath(legacy.toString());
+            entity.setPhotographContentType(null);
+            entity.setPhotographSha256(null);
+            studentRepository.save(entity);
+        });
+
+        mockMvc.perform(get("/api/students/{id}/photo", student.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + student.photographVersion() + "\""))
+                .andExpect(content().contentType("image/png"));
+        assertEquals(student.photographVersion(),
+                studentRepository.findById(student.id()).orElseThrow().getPhotographSha256());
+    }
+}
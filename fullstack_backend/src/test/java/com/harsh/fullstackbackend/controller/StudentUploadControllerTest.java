@@ -0,0 +1,141 @@
+package com.harsh.fullstackbackend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import com.harsh.fullstackbackend.service.PhotoDerivativeService;
+import com.harsh.fullstackbackend.service.StudentService;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * Raw multipart bodies through the real dispatcher, so the student endpoints are read by
+ * StudentController's streaming parser rather than the container's.
+ */
+@SpringBootTest
+class StudentUploadControllerTest {
+
+    private static final String BOUNDARY = "upload-test-boundary";
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16, 'J', 'F', 'I', 'F', 0, 1, 2, 3};
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    private MockMvc mockMvc;
+    private Long domainId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        Domain domain = new Domain();
+        domain.setProgram("M.Tech CSE");
+        domain.setBatch("2031");
+        domain.setCapacity(60);
+        domain.setQualification("M.Tech");
+        domainId = domainRepository.save(domain).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void streamsThePhotographWhateverThePartOrder() throws Exception {
+        String id = mockMvc.perform(post("/api/students")
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(body(student("upload1@example.com"), "photo.png", JPEG, true)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("upload1@example.com"))
+                .andReturn().getResponse().getContentAsString().replaceAll(".*\"id\":(\\d+).*", "$1");
+        // The sniffed type wins over the declared one
+        StudentService.PhotoResource photo = studentService.getStudentPhoto(Long.valueOf(id), PhotoDerivativeService.Size.ORIGINAL);
+        assertEquals("image/jpeg", photo.contentType());
+        assertArrayEquals(JPEG, Files.readAllBytes(photo.path()));
+
+        mockMvc.perform(post("/api/students")
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(body(student("upload2@example.com"), "photo.jpg", JPEG, false)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(put("/api/students/{id}", id)
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(body(student("upload1@example.com"), null, null, true)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void refusesNonImagesAndOversizedUploads() throws Exception {
+        mockMvc.perform(post("/api/students")
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(body(student("upload3@example.com"), "notes.jpg",
+                                "not an image at all".getBytes(StandardCharsets.UTF_8), true)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Photograph must be a JPEG, PNG or GIF image"));
+
+        byte[] huge = new byte[11 * 1024 * 1024];
+        System.arraycopy(JPEG, 0, huge, 0, JPEG.length);
+        mockMvc.perform(post("/api/students")
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(body(student("upload4@example.com"), "huge.jpg", huge, true)))
+                .andExpect(status().isPayloadTooLarge());
+
+        mockMvc.perform(post("/api/students")
+                        .contentType("multipart/form-data; boundary=" + BOUNDARY)
+                        .content(body(student("upload5@example.com"), null, null, true)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Photograph is required and cannot be empty"));
+    }
+
+    private String student(String email) {
+        return """
+                {"firstName":"Upload","lastName":"Test","email":"%s","cgpa":8.0,"totalCredits":80,
+                 "graduationYear":2031,"domainId":%d}""".formatted(email, domainId);
+    }
+
+    private static byte[] body(String studentJson, String filename, byte[] photo, boolean studentFirst) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] studentPart = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"student\"\r\n\r\n"
+                + studentJson + "\r\n").getBytes(StandardCharsets.UTF_8);
+        if (studentFirst) {
+            body.writeBytes(studentPart);
+        }
+        if (photo != null) {
+            body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"photograph\"; filename=\""
+                    + filename + "\"\r\nContent-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.writeBytes(photo);
+            body.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        if (!studentFirst) {
+            body.writeBytes(studentPart);
+        }
+        body.writeBytes(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+}
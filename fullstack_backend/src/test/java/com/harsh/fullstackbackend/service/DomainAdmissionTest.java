@@ -0,0 +1,169 @@
+package com.harsh.fullstackbackend.service;
+
+import static com.harsh.fullstackbackend.support.SqlStatementRecorder.record;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.dto.DomainRequest;
+import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.dto.StudentRequest;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.exception.DomainFullException;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class DomainAdmissionTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private DomainService domainService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DomainAdmission domainAdmission;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int created;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void burstOfRegistrationsFillsTheDomainExactly() throws Exception {
+        DomainResponse domain = domainService.createDomain(new DomainRequest("Admission", "2035", 20, "Admission"));
+        int registrations = 200;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<StudentResponse>> results = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < registrations; i++) {
+                StudentRequest request = request(domain);
+                results.add(clients.submit(() -> {
+                    start.await();
+                    return studentService.createStudent(request, photograph());
+                }));
+            }
+            start.countDown();
+        }
+
+        int admitted = 0;
+        int refused = 0;
+        for (Future<StudentResponse> result : results) {
+            try {
+                result.get(30, TimeUnit.SECONDS);
+                admitted++;
+            } catch (ExecutionException e) {
+                assertEquals(DomainFullException.class, e.getCause().getClass());
+                refused++;
+            }
+        }
+        assertEquals(20, admitted);
+        assertEquals(registrations - 20, refused);
+        assertEquals(20, seatsTaken(domain));
+        assertEquals(20, jdbcTemplate.queryForObject("select count(*) from Students where domain_id = ?",
+                Integer.class, domain.id()));
+    }
+
+    @Test
+    void fullDomainRefusesWithoutTouchingTheDatabase() throws Throwable {
+        DomainResponse domain = domainService.createDomain(new DomainRequest("Admission", "2036", 1, "Admission"));
+        studentService.createStudent(request(domain), photograph());
+        assertThrows(DomainFullException.class, () -> studentService.createStudent(request(domain), photograph()));
+
+        record(() -> assertThrows(DomainFullException.class,
+                () -> studentService.createStudent(request(domain), photograph())))
+                .assertAtMost(0, "createStudent in a domain known to be full");
+    }
+
+    @Test
+    void movesAndDeletesGiveSeatsBack() {
+        DomainResponse first = domainService.createDomain(new DomainRequest("Admission", "2037", 1, "Admission"));
+        DomainResponse second = domainService.createDomain(new DomainRequest("Admission", "2038", 1, "Admission"));
+        StudentResponse student = studentService.createStudent(request(first), photograph());
+        StudentResponse other = studentService.createStudent(request(second), photograph());
+
+        // The second domain is full, so the move is refused and nothing changes
+        StudentRequest move = new StudentRequest("Seat", "Holder", student.email(), 8.0, 80, 2035, second.id(),
+                null, null);
+        assertThrows(DomainFullException.class, () -> studentService.updateStudent(student.id(), move, null));
+        assertEquals(1, seatsTaken(first));
+        assertEquals(1, seatsTaken(second));
+
+        studentService.deleteStudent(other.id());
+        studentService.updateStudent(student.id(), move, null);
+        assertEquals(0, seatsTaken(first));
+        assertEquals(1, seatsTaken(second));
+
+        // The seat left behind is free again at once
+        studentService.createStudent(request(first), photograph());
+        assertEquals(1, seatsTaken(first));
+    }
+
+    @Test
+    void transferIntoAFullDomainInsideAnOpenTransactionIsRefused() {
+        DomainResponse first = domainService.createDomain(new DomainRequest("Admission", "2039", 1, "Admission"));
+        DomainResponse second = domainService.createDomain(new DomainRequest("Admission", "2040", 1, "Admission"));
+        studentService.createStudent(request(second), photograph());
+        Domain full = domainRepository.findById(second.id()).orElseThrow();
+
+        // The caller's transaction has read the row before, as an update or patch would have
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    assertEquals(1, seatsTaken(second));
+                    assertThrows(DomainFullException.class, () -> domainAdmission.transfer(first.id(), full));
+                }));
+        assertEquals(1, seatsTaken(second));
+    }
+
+    private int seatsTaken(DomainResponse domain) {
+        return jdbcTemplate.queryForObject("select seats_taken from domain_seats where domain_id = ?", Integer.class,
+                domain.id());
+    }
+
+    private StudentRequest request(DomainResponse domain) {
+        created++;
+        return new StudentRequest("Seat", "Holder", "seat%d@example.com".formatted(created), 8.0, 80, 2035,
+                domain.id(), null, null);
+    }
+
+    private MockMultipartFile photograph() {
+        return new MockMultipartFile("photograph", "photo.jpg", "image/jpeg",
+                "seat-photo".getBytes(StandardCharsets.UTF_8));
+    }
+}
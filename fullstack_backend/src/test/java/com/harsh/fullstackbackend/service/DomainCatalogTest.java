@@ -0,0 +1,107 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.harsh.fullstackbackend.controller.DomainController;
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.dto.DomainRequest;
+import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class DomainCatalogTest {
+
+    @Autowired
+    private DomainService domainService;
+
+    @Autowired
+    private DomainCatalog domainCatalog;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void lookupsAfterCreateAreServedFromTheSnapshot() {
+        DomainResponse created = domainService.createDomain(new DomainRequest("M.Tech ECE", "2027", 40, "M.Tech"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Domain domain = domainService.getDomainById(created.id());
+
+        assertEquals("M.Tech ECE", domain.getProgram());
+        assertEquals("2027", domain.getBatch());
+        assertTrue(domainService.getAllDomains().contains(created));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void picksUpChangesCommittedByAnotherNode() {
+        DomainCatalog.Snapshot before = domainCatalog.current();
+
+        // What createDomain does on a different node
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("insert into Domains (program, batch, capacity, qualification) values (?, ?, ?, ?)",
+                    "Ph.D", "2028", 10, "Ph.D");
+            domainCatalog.markChanged();
+        });
+        assertFalse(domainCatalog.current().domains().stream().anyMatch(d -> d.program().equals("Ph.D")));
+
+        domainCatalog.pollForChanges();
+
+        DomainCatalog.Snapshot after = domainCatalog.current();
+        assertEquals(before.version() + 1, after.version());
+        assertNotEquals(before.etag(), after.etag());
+        assertTrue(after.domains().stream().anyMatch(d -> d.program().equals("Ph.D")));
+    }
+
+    @Test
+    void unchangedCatalogIsNotModified() throws Exception {
+        domainService.createDomain(new DomainRequest("M.Sc", "2027", 30, "M.Sc"));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new DomainController(domainService)).build();
+
+        String etag = mockMvc.perform(get("/api/domains"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/domains").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        domainService.createDomain(new DomainRequest("M.Sc Physics", "2027", 30, "M.Sc"));
+        mockMvc.perform(get("/api/domains").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+}
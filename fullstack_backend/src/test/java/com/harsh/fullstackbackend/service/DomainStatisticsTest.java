@@ -0,0 +1,111 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.harsh.fullstackbackend.dto.DomainRequest;
+import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.dto.DomainStatsResponse;
+import com.harsh.fullstackbackend.dto.StudentRequest;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+@SpringBootTest
+class DomainStatisticsTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private DomainService domainService;
+
+    @Autowired
+    private DomainStatistics domainStatistics;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    private DomainResponse domain;
+
+    @BeforeEach
+    void setUp() {
+        domain = domainService.createDomain(new DomainRequest("Statistics", "2031", 4, "M.Sc"));
+        domainStatistics.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void followsCreatesUpdatesAndDeletes() {
+        StudentResponse first = create("stats1@example.com", 7.5, 2031);
+        create("stats2@example.com", 7.9, 2031);
+        StudentResponse third = create("stats3@example.com", 10.0, 2032);
+
+        DomainStatsResponse stats = stats();
+        assertEquals(3, stats.enrolled());
+        assertEquals(1, stats.remaining());
+        assertEquals(2, bucket(stats, 7));
+        assertEquals(1, bucket(stats, 9));
+        assertEquals(Map.of(2031, 2L, 2032, 1L), stats.graduationYears());
+
+        studentService.updateStudent(first.id(), request("stats1@example.com", 8.25, 2032), null);
+        studentService.deleteStudent(third.id());
+
+        stats = stats();
+        assertEquals(2, stats.enrolled());
+        assertEquals(1, bucket(stats, 7));
+        assertEquals(1, bucket(stats, 8));
+        assertEquals(0, bucket(stats, 9));
+        assertEquals(Map.of(2031, 1L, 2032, 1L), stats.graduationYears());
+    }
+
+    @Test
+    void reconcileCorrectsWritesThatBypassedTheCounters() {
+        StudentResponse first = create("stats4@example.com", 6.0, 2031);
+        create("stats5@example.com", 9.1, 2031);
+        studentRepository.deleteById(first.id());
+        assertEquals(2, stats().enrolled());
+
+        assertEquals(1, domainStatistics.reconcile());
+        DomainStatsResponse stats = stats();
+        assertEquals(1, stats.enrolled());
+        assertEquals(0, bucket(stats, 6));
+        assertEquals(1, bucket(stats, 9));
+        assertEquals(0, domainStatistics.reconcile());
+    }
+
+    private DomainStatsResponse stats() {
+        return domainService.getStatistics().stream()
+                .filter(stats -> stats.domainId().equals(domain.id()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static long bucket(DomainStatsResponse stats, int from) {
+        return stats.cgpaDistribution().get(from).students();
+    }
+
+    private StudentResponse create(String email, double cgpa, int graduationYear) {
+        return studentService.createStudent(request(email, cgpa, graduationYear), new MockMultipartFile("photograph",
+                "photo.jpg", "image/jpeg", email.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private StudentRequest request(String email, double cgpa, int graduationYear) {
+        return new StudentRequest("Stat", "Student", email, cgpa, 80, graduationYear, domain.id(), null, null);
+    }
+}
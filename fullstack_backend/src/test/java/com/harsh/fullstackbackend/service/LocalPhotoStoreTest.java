@@ -0,0 +1,110 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class LocalPhotoStoreTest {
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Autowired
+    private PhotoStoreMigration photoStoreMigration;
+
+    @Autowired
+    private PhotoJanitor photoJanitor;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.upload-dir}")
+    private String uploadDir;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void identicalUploadsShareOneFileUntilTheLastRelease() throws Exception {
+        byte[] bytes = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+
+        PhotoStore.StoredBlob first = photoStore.store(new ByteArrayInputStream(bytes));
+        PhotoStore.StoredBlob second = photoStore.store(new ByteArrayInputStream(bytes));
+        PhotoStore.StoredBlob other = photoStore.store(new ByteArrayInputStream("other".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(first.location(), second.location());
+        assertNotEquals(first.location(), other.location());
+        assertTrue(first.location().startsWith(first.sha256().substring(0, 2) + "/" + first.sha256().substring(2, 4) + "/"));
+        Path file = photoStore.resolve(first.location());
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+        assertEquals(2, refCount(first.sha256()));
+
+        photoStore.release(first.location());
+        assertEquals(1, refCount(first.sha256()));
+        photoStore.release(second.location());
+        // Queued for the janitor rather than deleted on the caller's thread
+        assertTrue(Files.exists(file));
+        assertEquals(0, refCount(first.sha256()));
+
+        photoJanitor.drain();
+        assertFalse(Files.exists(file));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from photo_blobs where sha256 = ?", Integer.class, first.sha256()));
+    }
+
+    @Test
+    void migratesFlatFilesIntoTheStore() throws Exception {
+        Domain domain = domainRepository.save(StudentServiceTest.domain("M.Tech CSE", "2025", "M.Tech"));
+        byte[] bytes = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        Path legacy = Files.createDirectories(Path.of(uploadDir)).resolve("MT25001_%s.png".formatted(UUID.randomUUID()));
+        Files.write(legacy, bytes);
+        Student withLegacyPhoto = StudentServiceTest.student(domain, "MT25001", "legacy@example.com", 8.0, 2025);
+        withLegacyPhoto.setPhotographPath(legacy.toString());
+        Student withMissingPhoto = StudentServiceTest.student(domain, "MT25002", "missing@example.com", 8.0, 2025);
+        withMissingPhoto.setPhotographPath(legacy.resolveSibling("gone.png").toString());
+        Long id = studentRepository.save(withLegacyPhoto).getId();
+        studentRepository.save(withMissingPhoto);
+
+        assertEquals(new PhotoStoreMigration.Result(1, 1, 0), photoStoreMigration.migrate());
+        // A second run has nothing left to move
+        assertEquals(new PhotoStoreMigration.Result(0, 1, 0), photoStoreMigration.migrate());
+
+        Student migrated = studentRepository.findById(id).orElseThrow();
+        assertTrue(photoStore.isManaged(migrated.getPhotographPath()));
+        assertEquals("image/png", migrated.getPhotographContentType());
+        assertArrayEquals(bytes, Files.readAllBytes(photoStore.resolve(migrated.getPhotographPath())));
+        assertFalse(Files.exists(legacy));
+    }
+
+    private int refCount(String sha256) {
+        return jdbcTemplate.queryForObject("select ref_count from photo_blobs where sha256 = ?", Integer.class, sha256);
+    }
+}
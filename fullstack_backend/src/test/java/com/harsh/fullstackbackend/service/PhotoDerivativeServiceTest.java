@@ -0,0 +1,56 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class PhotoDerivativeServiceTest {
+
+    @Autowired
+    private PhotoDerivativeService photoDerivativeService;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Test
+    void undecodablePhotographsAreNotQueuedAgain() throws Exception {
+        assertNotQueuedAgain(("not an image " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void truncatedPhotographsAreNotQueuedAgain() throws Exception {
+        // The BMP reader fails a truncated file with a bare EOFException rather than IIOException
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, UUID.randomUUID().hashCode() & 0xffffff);
+        ByteArrayOutputStream bmp = new ByteArrayOutputStream();
+        ImageIO.write(image, "bmp", bmp);
+        assertNotQueuedAgain(Arrays.copyOf(bmp.toByteArray(), bmp.size() / 2));
+    }
+
+    private void assertNotQueuedAgain(byte[] photograph) throws Exception {
+        PhotoStore.StoredBlob blob = photoStore.store(new ByteArrayInputStream(photograph));
+
+        assertTrue(photoDerivativeService.enqueue(blob.location(), blob.sha256()));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!photoDerivativeService.isUndecodable(blob.sha256())) {
+            assertTrue(System.nanoTime() < deadline, "decode was never attempted");
+            Thread.sleep(20);
+        }
+
+        assertFalse(photoDerivativeService.enqueue(blob.location(), blob.sha256()));
+        assertTrue(photoDerivativeService.find(blob.sha256(), PhotoDerivativeService.Size.THUMB).isEmpty());
+        photoStore.release(blob.location());
+    }
+}
@@ -0,0 +1,129 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.PhotoSweepReport;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class PhotoGarbageCollectorTest {
+
+    @Autowired
+    private PhotoGarbageCollector photoGarbageCollector;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void reclaimsOnlyOldUnreferencedFilesAndReportsFirstOnADryRun() throws Exception {
+        PhotoStore.StoredBlob referenced = photoStore.store(new ByteArrayInputStream(
+                UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)));
+        Domain domain = domainRepository.save(StudentServiceTest.domain("M.Tech CSE", "2032", "M.Tech"));
+        Student student = StudentServiceTest.student(domain, "MT32001", "gc@example.com", 8.0, 2032);
+        student.setPhotographPath(referenced.location());
+        studentRepository.save(student);
+
+        // Files with no row and no student, as a failed upload leaves them
+        Path orphan = orphanFile();
+        Path fresh = orphanFile();
+        Instant longAgo = Instant.now().minus(Duration.ofDays(2));
+        Files.setLastModifiedTime(orphan, FileTime.from(longAgo));
+        Files.setLastModifiedTime(photoStore.resolve(referenced.location()), FileTime.from(longAgo));
+
+        PhotoSweepReport dryRun = photoGarbageCollector.sweep(true);
+        assertTrue(dryRun.dryRun());
+        assertTrue(dryRun.orphanedFiles() >= 1);
+        assertEquals(0, dryRun.reclaimedFiles());
+        assertTrue(Files.exists(orphan));
+
+        PhotoSweepReport sweep = photoGarbageCollector.sweep(false);
+        assertTrue(sweep.reclaimedFiles() >= 1);
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(fresh), "younger than min-age");
+        assertTrue(Files.exists(photoStore.resolve(referenced.location())));
+        assertEquals(sweep, photoGarbageCollector.lastReport().orElseThrow());
+    }
+
+    @Test
+    void requestedDryRunsRunInTheBackgroundAndReplaceTheLastReport() throws Exception {
+        Instant requested = Instant.now();
+        photoGarbageCollector.requestDryRun();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        PhotoSweepReport report = null;
+        while (report == null || report.startedAt().isBefore(requested)) {
+            assertTrue(System.nanoTime() < deadline, "dry run never reported");
+            Thread.sleep(20);
+            report = photoGarbageCollector.lastReport().orElse(null);
+        }
+        assertTrue(report.dryRun());
+        assertEquals(0, report.reclaimedFiles());
+    }
+
+    @Test
+    void reclaimsReferenceCountsNoStudentBacks() throws Exception {
+        // Counted references that were never released and never got a student row
+        PhotoStore.StoredBlob leaked = photoStore.store(new ByteArrayInputStream(
+                UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)));
+        PhotoStore.StoredBlob inFlight = photoStore.store(new ByteArrayInputStream(
+                UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)));
+        Instant longAgo = Instant.now().minus(Duration.ofDays(2));
+        Files.setLastModifiedTime(photoStore.resolve(leaked.location()), FileTime.from(longAgo));
+        Files.setLastModifiedTime(photoStore.resolve(inFlight.location()), FileTime.from(longAgo));
+        jdbcTemplate.update("update photo_blobs set referenced_at = ? where sha256 = ?", Timestamp.from(longAgo),
+                leaked.sha256());
+
+        photoGarbageCollector.sweep(false);
+
+        assertFalse(Files.exists(photoStore.resolve(leaked.location())));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from photo_blobs where sha256 = ?",
+                Integer.class, leaked.sha256()));
+        assertTrue(Files.exists(photoStore.resolve(inFlight.location())), "referenced within min-age");
+        assertEquals(1, jdbcTemplate.queryForObject("select ref_count from photo_blobs where sha256 = ?",
+                Integer.class, inFlight.sha256()));
+    }
+
+    private Path orphanFile() throws Exception {
+        String sha256 = HexFormat.of().formatHex(LocalPhotoStore.sha256Digest()
+                .digest(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)));
+        Path file = photoStore.resolve(sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, "orphan");
+    }
+}
@@ -0,0 +1,86 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class PhotoJanitorTest {
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    @Autowired
+    private PhotoJanitor photoJanitor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.upload-dir}")
+    private String uploadDir;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from photo_deletions");
+    }
+
+    @Test
+    void keepsAFileUploadedAgainBeforeItsDeletionRuns() throws Exception {
+        byte[] bytes = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        PhotoStore.StoredBlob blob = photoStore.store(new ByteArrayInputStream(bytes));
+        photoStore.release(blob.location());
+
+        // Same bytes again while the deletion is still queued: the file is reused and must survive
+        photoStore.store(new ByteArrayInputStream(bytes));
+        photoJanitor.drain();
+
+        assertTrue(Files.exists(photoStore.resolve(blob.location())));
+        assertEquals(0, queued());
+        photoStore.release(blob.location());
+        photoJanitor.drain();
+        assertFalse(Files.exists(photoStore.resolve(blob.location())));
+    }
+
+    @Test
+    void retriesAFailedDeleteWithBackoff() throws Exception {
+        // A non-empty directory cannot be deleted, standing in for a file system error
+        Path stuck = Files.createDirectories(Path.of(uploadDir).resolve("stuck-" + UUID.randomUUID()));
+        Path blocker = Files.writeString(stuck.resolve("blocker"), "x");
+        photoStore.release(stuck.toString());
+
+        photoJanitor.drain();
+        assertTrue(Files.exists(stuck));
+        assertEquals(1, jdbcTemplate.queryForObject("select attempts from photo_deletions", Integer.class));
+        // Not due again yet
+        photoJanitor.drain();
+        assertEquals(1, jdbcTemplate.queryForObject("select attempts from photo_deletions", Integer.class));
+
+        Files.delete(blocker);
+        jdbcTemplate.update("update photo_deletions set next_attempt_at = ?", Timestamp.valueOf("2000-01-01 00:00:00"));
+        photoJanitor.drain();
+        assertFalse(Files.exists(stuck));
+        assertEquals(0, queued());
+
+        assertEquals(Duration.ofSeconds(30), PhotoJanitor.retryDelay(1));
+        assertEquals(Duration.ofMinutes(2), PhotoJanitor.retryDelay(3));
+        assertEquals(Duration.ofHours(1), PhotoJanitor.retryDelay(40));
+    }
+
+    private int queued() {
+        return jdbcTemplate.queryForObject("select count(*) from photo_deletions", Integer.class);
+    }
+}
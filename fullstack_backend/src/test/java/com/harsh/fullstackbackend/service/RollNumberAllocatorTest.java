@@ -0,0 +1,112 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+class RollNumberAllocatorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from roll_number_sequences");
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+        jdbcTemplate.update("delete from roll_number_sequences");
+    }
+
+    @Test
+    void formatsPrefixesAndSequences() {
+        assertEquals("MT", RollNumberAllocator.normalizePrefix("M.Tech"));
+        assertEquals("IM", RollNumberAllocator.normalizePrefix("iMTech"));
+        assertEquals("BX", RollNumberAllocator.normalizePrefix(" b-1 "));
+        assertNull(RollNumberAllocator.normalizePrefix("2025 / 26"));
+        assertEquals("25", RollNumberAllocator.extractBatchSuffix("2025"));
+        assertEquals("26", RollNumberAllocator.extractBatchSuffix("Batch 2-6"));
+        assertEquals("07", RollNumberAllocator.extractBatchSuffix("Year 7"));
+        assertEquals("007", RollNumberAllocator.formatSequence(7));
+        assertEquals("1234", RollNumberAllocator.formatSequence(1234));
+    }
+
+    @Test
+    void continuesAfterExistingRollNumbers() {
+        Domain domain = domainRepository.save(StudentServiceTest.domain("M.Tech CSE", "2025", "M.Tech"));
+        studentRepository.save(StudentServiceTest.student(domain, "MT25041", "existing@example.com", 8.0, 2025));
+
+        RollNumberAllocator allocator = allocator(10);
+
+        assertEquals("MT25042", allocator.next(domain));
+        assertEquals("MT25043", allocator.next(domain));
+        // Runs are reserved past the block this node already holds (MT25042-MT25051)
+        assertEquals(List.of("MT25052", "MT25053", "MT25054"), allocator.next("MT25", 3));
+    }
+
+    @Test
+    void manyThreadsOnTwoNodesNeverShareANumber() throws Exception {
+        Domain domain = domainRepository.save(StudentServiceTest.domain("M.Tech CSE", "2025", "M.Tech"));
+        // Two allocators over one database stand in for two application nodes
+        List<RollNumberAllocator> nodes = List.of(allocator(7), allocator(7));
+        int threads = 32;
+        int perThread = 50;
+
+        Set<String> allocated = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            RollNumberAllocator node = nodes.get(t % nodes.size());
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    allocated.add(i % 10 == 0 ? node.next("MT25", 2).get(1) : node.next(domain));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(threads * perThread, allocated.size());
+    }
+
+    private RollNumberAllocator allocator(int blockSize) {
+        return new RollNumberAllocator(jdbcTemplate, studentRepository, transactionManager, blockSize);
+    }
+}
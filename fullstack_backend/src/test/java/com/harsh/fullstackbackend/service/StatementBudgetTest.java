@@ -0,0 +1,185 @@
+package com.harsh.fullstackbackend.service;
+
+import static com.harsh.fullstackbackend.support.SqlStatementRecorder.record;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.harsh.fullstackbackend.dto.DomainRequest;
+import com.harsh.fullstackbackend.dto.DomainResponse;
+import com.harsh.fullstackbackend.dto.StudentBatchRequest;
+import com.harsh.fullstackbackend.dto.StudentFilter;
+import com.harsh.fullstackbackend.dto.StudentPatch;
+import com.harsh.fullstackbackend.dto.StudentRequest;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.dto.StudentSearchPage;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import com.harsh.fullstackbackend.support.SqlStatementRecorder.Recorded;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Statement budgets for the service calls behind each endpoint, counted at the JDBC driver
+ * (Hibernate and JdbcTemplate alike). A budget that starts failing means a new lazy load,
+ * existence check or per-row query crept in; raise it only when the extra round trip is wanted.
+ */
+@SpringBootTest
+class StatementBudgetTest {
+
+    private static final StudentFilter NO_FILTER = new StudentFilter(null, null, null, null, null);
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private DomainService domainService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private DomainResponse domain;
+    private int created;
+
+    @BeforeEach
+    void setUp() {
+        domain = domainService.createDomain(new DomainRequest("Budget Studies", "2033", 500, "Budget"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void listingIsOneStatementAtAnySize() throws Throwable {
+        createStudents(5);
+        record(() -> studentService.getStudents(NO_FILTER, null, null, null)).assertAtMost(1, "list of 5");
+
+        createStudents(45);
+        Recorded<?> large = record(() -> studentService.getStudents(NO_FILTER, null, null, null))
+                .assertAtMost(1, "list of 50");
+        assertEquals(1, large.count());
+    }
+
+    @Test
+    void detailReadsLoadOnlyTheStudentRow() throws Throwable {
+        List<StudentResponse> students = createStudents(10);
+        entityManagerFactory.getCache().evictAll();
+
+        // Cold: one primary-key select each, the domain never comes from the database
+        Recorded<Void> cold = record(() -> students.forEach(s -> studentService.getStudent(s.id())));
+        cold.assertAtMost(students.size(), "10 cold detail reads");
+
+        record(() -> students.forEach(s -> studentService.getStudent(s.id()))).assertAtMost(0, "10 warm detail reads");
+        record(() -> studentService.getStudentByRollNumber(students.get(0).rollNumber()))
+                .assertAtMost(0, "warm roll number lookup");
+    }
+
+    @Test
+    void batchLookupIsOneStatement() throws Throwable {
+        List<StudentResponse> students = createStudents(20);
+        List<Long> ids = students.stream().map(StudentResponse::id).toList();
+        List<String> rollNumbers = students.stream().map(StudentResponse::rollNumber).toList();
+
+        record(() -> studentService.getStudentsBatch(new StudentBatchRequest(ids, null)))
+                .assertAtMost(1, "batch of 20 ids");
+        record(() -> studentService.getStudentsBatch(new StudentBatchRequest(ids.subList(0, 10),
+                rollNumbers.subList(10, 20)))).assertAtMost(1, "batch of ids and roll numbers");
+    }
+
+    @Test
+    void writesStayWithinBudget() throws Throwable {
+        // existsByEmail; the seat; the prefix's first roll number block (update misses, seed from the
+        // highest existing roll number, insert); the student insert; photo_blobs update misses, insert
+        Recorded<StudentResponse> create = record(() -> studentService.createStudent(request("first@example.com"),
+                photograph("first"))).assertAtMost(8, "createStudent");
+        // The allocator now holds a block of roll numbers and the photograph is shared
+        record(() -> studentService.createStudent(request("second@example.com"), photograph("first")))
+                .assertAtMost(4, "createStudent with a reserved roll number and a known photograph");
+
+        Long id = create.result().id();
+        // existsById, existsByEmailAndIdNot, the row and the update
+        record(() -> studentService.updateStudent(id, request("renamed@example.com"), null))
+                .assertAtMost(4, "updateStudent without photograph");
+
+        // The row, the delete, the seat, and the photo_blobs lock + decrement
+        record(() -> studentService.deleteStudent(id)).assertAtMost(5, "deleteStudent");
+    }
+
+    @Test
+    void patchWritesOnlyTheChangedColumns() throws Throwable {
+        StudentResponse student = createStudents(1).get(0);
+        StudentPatch cgpa = new StudentPatch(new StudentRequest(null, null, null, 9.4, null, null, null, null, null),
+                Set.of("cgpa"));
+
+        // The row (second-level cache when warm) and a one-column update
+        Recorded<StudentResponse> patched = record(() -> studentService.patchStudent(student.id(), cgpa))
+                .assertAtMost(2, "patchStudent of one field");
+        assertEquals(9.4, patched.result().cgpa());
+        String update = patched.statements().get(patched.count() - 1).toLowerCase();
+        assertTrue(update.startsWith("update students set cgpa=? where"), update);
+
+        // Unchanged email and domain need no checks
+        StudentPatch same = new StudentPatch(new StudentRequest(null, null, student.email(), null, null, null,
+                domain.id(), null, null), Set.of("email", "domainId"));
+        record(() -> studentService.patchStudent(student.id(), same)).assertAtMost(1, "patchStudent with no changes");
+    }
+
+    @Test
+    void searchIsServedFromTheIndex() throws Throwable {
+        List<StudentResponse> students = createStudents(3);
+        Long deleted = students.get(2).id();
+        studentService.deleteStudent(deleted);
+
+        Recorded<StudentSearchPage> search = record(() -> studentService.searchStudents("budget", 0, 10))
+                .assertAtMost(0, "searchStudents");
+        assertEquals(List.of(students.get(0).id(), students.get(1).id()),
+                search.result().students().stream().map(StudentResponse::id).toList());
+    }
+
+    @Test
+    void domainReadsComeFromTheCatalog() throws Throwable {
+        createStudents(3);
+
+        record(() -> domainService.getAllDomains()).assertAtMost(0, "getAllDomains");
+        record(() -> domainService.getDomain(domain.id())).assertAtMost(0, "getDomain");
+        record(() -> domainService.getStatistics()).assertAtMost(0, "getStatistics");
+        // insert, its seat row, catalog version bump, and the reload (version + domains)
+        record(() -> domainService.createDomain(new DomainRequest("Budget Studies", "2034", 60, "Budget")))
+                .assertAtMost(5, "createDomain");
+    }
+
+    private List<StudentResponse> createStudents(int count) {
+        List<StudentResponse> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            created++;
+            students.add(studentService.createStudent(request("budget%d@example.com".formatted(created)),
+                    photograph("photo-" + created)));
+        }
+        return students;
+    }
+
+    private StudentRequest request(String email) {
+        return new StudentRequest("Budget", "Student", email, 7.0, 80, 2033, domain.id(), null, null);
+    }
+
+    private static MockMultipartFile photograph(String content) {
+        return new MockMultipartFile("photograph", "photo.jpg", "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
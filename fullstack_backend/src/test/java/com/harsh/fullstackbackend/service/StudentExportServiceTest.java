@@ -0,0 +1,72 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class StudentExportServiceTest {
+
+    @Autowired
+    private StudentExportService studentExportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        Domain domain = domainRepository.save(StudentServiceTest.domain("Data Science, AI", "2025", "M.Tech"));
+        for (int i = 1; i <= 3; i++) {
+            studentRepository.save(StudentServiceTest.student(domain, "MT25%03d".formatted(i),
+                    "export%d@example.com".formatted(i), 8.5, 2025));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        studentExportService.export(StudentExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        StudentResponse first = objectMapper.readValue(lines[0], StudentResponse.class);
+        assertEquals("MT25001", first.rollNumber());
+        assertEquals("Data Science, AI", first.domainProgram());
+    }
+
+    @Test
+    void exportsCsvWithHeaderAndQuoting() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        studentExportService.export(StudentExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("id,rollNumber,"));
+        assertTrue(lines[1].contains(",MT25001,First,Last,export1@example.com,,,8.5,80,2025,,,"));
+        assertTrue(lines[1].endsWith(",\"Data Science, AI\",2025"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.dto.BulkImportResult;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+@SpringBootTest
+class StudentImportServiceTest {
+
+    private static final String JPEG = "\u00FF\u00D8\u00FF\u00E0jpeg-bytes";
+    private static final String PNG = "\u0089PNG\r\n\u001A\npng-bytes";
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Domain domain;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from roll_number_sequences");
+        domain = domainRepository.save(StudentServiceTest.domain("M.Tech CSE", "2025", "M.Tech"));
+        studentRepository.save(StudentServiceTest.student(domain, "MT25001", "taken@example.com", 8.0, 2025));
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void importsValidRowsAndReportsTheRest() throws IOException {
+        String csv = """
+                firstName,lastName,email,cgpa,totalCredits,graduationYear,domainId,photograph
+                Asha,"Rao, Jr",asha@example.com,8.1,80,2025,%1$d,asha.jpg
+                Ravi,Kumar,ravi@example.com,7.4,80,2025,%1$d,photos/ravi.png
+                Old,Timer,taken@example.com,7.0,80,2025,%1$d,asha.jpg
+                No,Photo,nophoto@example.com,7.0,80,2025,%1$d,missing.jpg
+                Bad,Cgpa,bad@example.com,,80,2025,%1$d,asha.jpg
+                Dup,Email,asha@example.com,7.0,80,2025,%1$d,asha.jpg
+                Not,Image,notimage@example.com,7.0,80,2025,%1$d,notes.jpg
+                """.formatted(domain.getId());
+
+        BulkImportResult result = studentImportService.importStudents(
+                new MockMultipartFile("manifest", "students.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("photographs", "photos.zip", "application/zip",
+                        zip(Map.of("asha.jpg", JPEG, "photos/ravi.png", PNG, "notes.jpg", "plain text"))));
+
+        assertEquals(7, result.received());
+        assertEquals(List.of("MT25002", "MT25003"),
+                result.imported().stream().map(BulkImportResult.ImportedStudent::rollNumber).toList());
+        assertEquals(List.of(3, 4, 5, 6, 7), result.errors().stream().map(BulkImportResult.RowError::row).toList());
+        assertTrue(result.errors().get(0).message().contains("already registered"));
+        assertEquals("Photograph must be a JPEG, PNG or GIF image", result.errors().get(4).message());
+        assertEquals(3, studentRepository.count());
+        assertEquals("Rao, Jr", studentRepository.findAll().stream()
+                .filter(s -> s.getEmail().equals("asha@example.com")).findFirst().orElseThrow().getLastName());
+        assertEquals("image/png", studentRepository.findAll().stream()
+                .filter(s -> s.getEmail().equals("ravi@example.com")).findFirst().orElseThrow()
+                .getPhotographContentType());
+    }
+
+    @Test
+    void importsNdjsonManifest() throws IOException {
+        String ndjson = """
+                {"firstName":"Asha","lastName":"Rao","email":"asha@example.com","cgpa":8.1,"totalCredits":80,"graduationYear":2025,"domainId":%1$d,"photograph":"asha.jpg"}
+                not json
+                """.formatted(domain.getId());
+
+        BulkImportResult result = studentImportService.importStudents(
+                new MockMultipartFile("manifest", "students.ndjson", "application/x-ndjson",
+                        ndjson.getBytes(StandardCharsets.UTF_8)),
+                new MockMultipartFile("photographs", "photos.zip", "application/zip",
+                        zip(Map.of("asha.jpg", JPEG))));
+
+        assertEquals(1, result.imported().size());
+        assertEquals(2, result.errors().get(0).row());
+    }
+
+    private static byte[] zip(Map<String, String> files) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                zip.putNextEntry(new ZipEntry(file.getKey()));
+                zip.write(file.getValue().getBytes(StandardCharsets.ISO_8859_1));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StudentSearchIndexTest {
+
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new StudentSearchIndex(null, new SimpleMeterRegistry());
+        index.putAll(List.of(
+                student(1L, "MT25001", "Asha", "Rao", "asha.rao@example.com"),
+                student(2L, "MT25002", "Ashok", "Kumar", "ashok@example.com"),
+                student(3L, "IM26003", "Ravi", "Asharaf", "ravi@example.com"),
+                student(4L, "MT25010", "Mary-Jane", "O'Neil", "mj@example.com")));
+    }
+
+    @Test
+    void ranksExactThenPrefixThenSubstring() {
+        // An exact first name beats a surname prefix
+        assertEquals(List.of(1L, 3L), ids(index.search("asha", 0, 10)));
+        assertEquals(List.of(1L, 2L, 4L), ids(index.search("mt250", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("mt25002", 0, 10)));
+        assertEquals(List.of(4L), ids(index.search("neil", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("shara", 0, 10)));
+    }
+
+    @Test
+    void requiresEveryTermAndPages() {
+        assertEquals(List.of(1L), ids(index.search("Asha RAO", 0, 10)));
+        assertEquals(List.of(), ids(index.search("asha kumar", 0, 10)));
+        assertEquals(List.of(), ids(index.search("ravi kumar", 0, 10)));
+
+        StudentSearchIndex.Result second = index.search("example.com", 1, 2);
+        assertEquals(4, second.total());
+        assertEquals(2, second.students().size());
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        long before = index.stats().estimatedBytes();
+        index.put(student(2L, "MT25002", "Ashok", "Verma", "ashok.verma@example.com"));
+        assertEquals(List.of(), ids(index.search("kumar", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("verma", 0, 10)));
+
+        index.remove(2L);
+        assertEquals(List.of(), ids(index.search("ashok", 0, 10)));
+        assertEquals(3, index.stats().documents());
+        assertTrue(index.stats().estimatedBytes() < before);
+    }
+
+    private static List<Long> ids(StudentSearchIndex.Result result) {
+        return result.students().stream().map(StudentResponse::id).toList();
+    }
+
+    private static StudentResponse student(Long id, String rollNumber, String firstName, String lastName, String email) {
+        return new StudentResponse(id, rollNumber, firstName, lastName, email, null, null, 8.0, 80, 2025, null, null,
+                1L, "M.Tech CSE", "2025");
+    }
+}
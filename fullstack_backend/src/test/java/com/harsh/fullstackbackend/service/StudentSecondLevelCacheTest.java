@@ -0,0 +1,121 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.StudentRequest;
+import com.harsh.fullstackbackend.exception.ResourceNotFoundException;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reads served from the second-level cache must never return data older than the last commit.
+ */
+@SpringBootTest
+class StudentSecondLevelCacheTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Domain domain;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        domain = domainRepository.save(StudentServiceTest.domain("M.Tech Cache", "2032", "Cache"));
+        student = studentRepository.save(StudentServiceTest.student(domain, "CA32001", "cached@example.com", 8.0, 2032));
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedReadsHitTheCache() {
+        studentService.getStudent(student.getId());
+        studentService.getStudentByRollNumber("CA32001");
+
+        statistics.clear();
+        assertEquals("cached@example.com", studentService.getStudent(student.getId()).email());
+        assertEquals(student.getId(), studentService.getStudentByRollNumber("CA32001").id());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics("students").getHitCount() >= 2);
+        assertTrue(statistics.getNaturalIdStatistics(Student.class.getName()).getCacheHitCount() >= 1);
+    }
+
+    @Test
+    void updatesAreVisibleImmediately() {
+        studentService.getStudent(student.getId());
+
+        studentService.updateStudent(student.getId(), new StudentRequest("Renamed", "Student", "renamed@example.com",
+                9.5, 90, 2032, domain.getId(), null, null), null);
+
+        assertEquals("Renamed", studentService.getStudent(student.getId()).firstName());
+        assertEquals("renamed@example.com", studentService.getStudentByRollNumber("CA32001").email());
+        assertEquals(9.5, studentService.getStudent(student.getId()).cgpa());
+    }
+
+    @Test
+    void rolledBackChangesNeverReachTheCache() {
+        studentService.getStudent(student.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Student managed = studentRepository.findById(student.getId()).orElseThrow();
+            managed.setFirstName("Uncommitted");
+            studentRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertEquals("First", studentService.getStudent(student.getId()).firstName());
+    }
+
+    @Test
+    void bulkUpdatesEvictTheRegion() {
+        studentService.getStudent(student.getId());
+
+        studentRepository.updatePhotograph(student.getId(), "ab/cd/" + "a".repeat(64), "image/png", "a".repeat(64));
+
+        assertEquals("a".repeat(64), studentService.getStudent(student.getId()).photographVersion());
+    }
+
+    @Test
+    void deletedStudentsAreGone() {
+        studentService.getStudent(student.getId());
+        studentService.getStudentByRollNumber("CA32001");
+
+        studentService.deleteStudent(student.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getStudent(student.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getStudentByRollNumber("CA32001"));
+    }
+}
@@ -0,0 +1,326 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.harsh.fullstackbackend.domain.Domain;
+import com.harsh.fullstackbackend.domain.Student;
+import com.harsh.fullstackbackend.dto.StudentBatchRequest;
+import com.harsh.fullstackbackend.dto.StudentBatchResponse;
+import com.harsh.fullstackbackend.dto.StudentFilter;
+import com.harsh.fullstackbackend.dto.StudentPage;
+import com.harsh.fullstackbackend.dto.StudentPatch;
+import com.harsh.fullstackbackend.dto.StudentRequest;
+import com.harsh.fullstackbackend.dto.StudentResponse;
+import com.harsh.fullstackbackend.repository.DomainRepository;
+import com.harsh.fullstackbackend.repository.StudentRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Background jobs that touch the database are stubbed or pushed out of the way so pool occupancy
+ * and lock timings observed here come only from the calls under test.
+ */
+@SpringBootTest(properties = {
+        "app.students.search.rebuild-interval=PT1H",
+        "app.domains.stats.reconcile-interval=PT1H"})
+class StudentServiceTest {
+
+    private static final StudentFilter NO_FILTER = new StudentFilter(null, null, null, null, null);
+
+    @MockBean
+    private PhotoJanitor photoJanitor;
+
+    @MockBean
+    private PhotoGarbageCollector photoGarbageCollector;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DomainRepository domainRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Domain mtech;
+    private Domain imtech;
+
+    @BeforeEach
+    void setUp() {
+        mtech = domainRepository.save(domain("M.Tech CSE", "2025", "M.Tech"));
+        imtech = domainRepository.save(domain("Integrated M.Tech", "2026", "iMTech"));
+        for (int i = 1; i <= 25; i++) {
+            Domain domain = i % 2 == 0 ? imtech : mtech;
+            studentRepository.save(student(domain, "%s%03d".formatted(i % 2 == 0 ? "IM26" : "MT25", i),
+                    "student%d@example.com".formatted(i), 6.0 + (i % 5), 2025 + (i % 2)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        domainRepository.deleteAll();
+    }
+
+    @Test
+    void pagesThroughAllStudentsById() {
+        List<StudentResponse> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            StudentPage page = studentService.getStudents(NO_FILTER, null, cursor, 10);
+            assertTrue(page.students().size() <= 10);
+            seen.addAll(page.students());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(25, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).id() < seen.get(i).id());
+        }
+    }
+
+    @Test
+    void pagesByRollNumber() {
+        StudentPage first = studentService.getStudents(NO_FILTER, "rollNumber", null, 5);
+        StudentPage second = studentService.getStudents(NO_FILTER, "rollNumber", first.nextCursor(), 5);
+
+        assertEquals("IM26002", first.students().get(0).rollNumber());
+        assertTrue(first.students().get(4).rollNumber().compareTo(second.students().get(0).rollNumber()) < 0);
+    }
+
+    @Test
+    void appliesFiltersInQuery() {
+        StudentPage page = studentService.getStudents(
+                new StudentFilter(mtech.getId(), null, 8.0, null, null), null, null, null);
+
+        assertNull(page.nextCursor());
+        assertTrue(page.students().stream()
+                .allMatch(s -> s.domainId().equals(mtech.getId()) && s.cgpa() >= 8.0));
+        assertEquals(studentRepository.findAll().stream()
+                .filter(s -> s.getDomain().getId().equals(mtech.getId()) && s.getCgpa() >= 8.0)
+                .count(), page.students().size());
+    }
+
+    @Test
+    void batchLookupKeepsRequestOrderAndReportsMissingKeys() {
+        List<StudentResponse> students = studentService.getStudents(NO_FILTER, null, null, 5).students();
+        Long missingId = students.get(4).id() + 10_000;
+
+        StudentBatchResponse batch = studentService.getStudentsBatch(new StudentBatchRequest(
+                List.of(students.get(3).id(), missingId, students.get(0).id(), students.get(3).id()),
+                List.of(students.get(1).rollNumber(), "XX00000", students.get(0).rollNumber())));
+
+        assertEquals(List.of(students.get(3).id(), students.get(0).id(), students.get(1).id()),
+                batch.students().stream().map(StudentResponse::id).toList());
+        assertEquals(mtech.getProgram(), batch.students().get(1).domainProgram());
+        assertEquals(List.of(missingId), batch.missingIds());
+        assertEquals(List.of("XX00000"), batch.missingRollNumbers());
+
+        assertEquals(List.of(students.get(2).id()), studentService.getStudentsBatch(
+                new StudentBatchRequest(List.of(students.get(2).id()), null)).students().stream()
+                .map(StudentResponse::id).toList());
+        assertThrows(IllegalArgumentException.class,
+                () -> studentService.getStudentsBatch(new StudentBatchRequest(List.of(), null)));
+    }
+
+    @Test
+    void patchChangesOnlySuppliedFields() {
+        Student original = studentRepository.findAll().get(0);
+        Student other = studentRepository.findAll().get(1);
+        Long id = original.getId();
+        original.setSpecialisationId(7);
+        studentRepository.save(original);
+
+        StudentResponse patched = studentService.patchStudent(id, new StudentPatch(
+                new StudentRequest(null, null, null, 9.9, null, null, imtech.getId(), null, null),
+                Set.of("cgpa", "specialisationId", "domainId")));
+
+        assertEquals(9.9, patched.cgpa());
+        assertNull(patched.specialisationId());
+        assertEquals(imtech.getId(), patched.domainId());
+        assertEquals(original.getEmail(), patched.email());
+        assertEquals(original.getFirstName(), patched.firstName());
+        assertEquals(original.getTotalCredits(), patched.totalCredits());
+
+        assertThrows(IllegalArgumentException.class, () -> studentService.patchStudent(id,
+                new StudentPatch(new StudentRequest(null, null, null, null, null, null, null, null, null),
+                        Set.of("firstName"))));
+        assertThrows(IllegalArgumentException.class, () -> studentService.patchStudent(id,
+                new StudentPatch(new StudentRequest(null, null, other.getEmail(), null, null, null, null, null, null),
+                        Set.of("email"))));
+    }
+
+    @Test
+    void rejectsCursorForDifferentSort() {
+        StudentPage page = studentService.getStudents(NO_FILTER, "id", null, 5);
+        assertNotNull(page.nextCursor());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> studentService.getStudents(NO_FILTER, "rollNumber", page.nextCursor(), 5));
+    }
+
+    @Test
+    void listingStatementCountDoesNotGrowWithRows() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        assertEquals(25, studentService.getStudents(NO_FILTER, null, null, null).students().size());
+        long statementsForSmallTable = statistics.getPrepareStatementCount();
+
+        for (int i = 100; i < 175; i++) {
+            studentRepository.save(student(i % 2 == 0 ? imtech : mtech, "XX25%03d".formatted(i),
+                    "bulk%d@example.com".formatted(i), 7.0, 2025));
+        }
+
+        statistics.clear();
+        assertEquals(100, studentService.getStudents(NO_FILTER, null, null, null).students().size());
+
+        assertEquals(1, statementsForSmallTable);
+        assertEquals(statementsForSmallTable, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void repeatedDetailReadsIssueNoStatements() {
+        Long id = studentService.getStudents(NO_FILTER, null, null, 1).students().get(0).id();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        StudentResponse response = studentService.getStudent(id);
+        assertNotNull(response.domainProgram());
+
+        statistics.clear();
+        assertEquals(response, studentService.getStudent(id));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void slowPhotographWritesHoldNoPooledConnection() throws Exception {
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        Domain domain = domainRepository.save(domain("Data Science", "2031", "Data Science"));
+        int uploads = 8;
+        CountDownLatch writing = new CountDownLatch(uploads);
+        CountDownLatch diskCatchesUp = new CountDownLatch(1);
+        AtomicInteger activeWhileAllWriting = new AtomicInteger(-1);
+
+        ExecutorService clients = Executors.newFixedThreadPool(uploads);
+        List<Future<StudentResponse>> created = new ArrayList<>();
+        try {
+            for (int i = 0; i < uploads; i++) {
+                StudentRequest request = new StudentRequest("Slow", "Disk", "slow%d@example.com".formatted(i), 7.5,
+                        80, 2031, domain.getId(), null, null);
+                // The last request to start copying samples the pool while every other one is still stalled
+                MultipartFile photograph = slowUpload("photo-%d".formatted(i), writing, diskCatchesUp,
+                        () -> activeWhileAllWriting.set(pool.getActiveConnections()));
+                created.add(clients.submit(() -> studentService.createStudent(request, photograph)));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!writing.await(100, TimeUnit.MILLISECONDS)) {
+                for (Future<StudentResponse> student : created) {
+                    if (student.isDone()) {
+                        student.get(); // surfaces the failure of a request that never reached its photograph
+                    }
+                }
+                assertTrue(System.nanoTime() < deadline, "uploads never reached their photograph");
+            }
+        } finally {
+            diskCatchesUp.countDown();
+            clients.shutdown();
+        }
+        for (Future<StudentResponse> student : created) {
+            assertNotNull(student.get(30, TimeUnit.SECONDS).photographVersion());
+        }
+
+        assertEquals(0, activeWhileAllWriting.get());
+        assertEquals(25 + uploads, studentRepository.count());
+    }
+
+    private static MultipartFile slowUpload(String content, CountDownLatch writing, CountDownLatch diskCatchesUp,
+            Runnable onAllWriting) {
+        return new MockMultipartFile("photograph", "photo.jpg", "image/jpeg", content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new FilterInputStream(super.getInputStream()) {
+                    private boolean stalled;
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        if (!stalled) {
+                            stalled = true;
+                            synchronized (writing) {
+                                // Sampled before the last count down, so nothing is released yet
+                                if (writing.getCount() == 1) {
+                                    onAllWriting.run();
+                                }
+                                writing.countDown();
+                            }
+                            try {
+                                diskCatchesUp.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IOException(e);
+                            }
+                        }
+                        return super.read(buffer, offset, length);
+                    }
+                };
+            }
+        };
+    }
+
+    static Domain domain(String program, String batch, String qualification) {
+        Domain domain = new Domain();
+        domain.setProgram(program);
+        domain.setBatch(batch);
+        domain.setCapacity(60);
+        domain.setQualification(qualification);
+        return domain;
+    }
+
+    static Student student(Domain domain, String rollNumber, String email, double cgpa, int graduationYear) {
+        Student student = new Student();
+        student.setDomain(domain);
+        student.setRollNumber(rollNumber);
+        student.setFirstName("First");
+        student.setLastName("Last");
+        student.setEmail(email);
+        student.setCgpa(cgpa);
+        student.setTotalCredits(80);
+        student.setGraduationYear(graduationYear);
+        return student;
+    }
+}
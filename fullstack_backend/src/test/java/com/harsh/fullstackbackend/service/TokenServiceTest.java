@@ -0,0 +1,103 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.harsh.fullstackbackend.config.BackgroundThreads;
+import com.harsh.fullstackbackend.support.StubGoogleServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.http.HttpClient;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenServiceTest {
+
+    private static final String CLIENT_ID = "test-client-id";
+
+    private StubGoogleServer google;
+    private JwksKeyCache jwksKeyCache;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        google = new StubGoogleServer(CLIENT_ID);
+
+        HttpClient httpClient = HttpClient.newHttpClient();
+        jwksKeyCache = new JwksKeyCache(httpClient, new BackgroundThreads(false));
+        ReflectionTestUtils.setField(jwksKeyCache, "jwksUri", google.jwksUri());
+
+        tokenService = new TokenService(jwksKeyCache, httpClient, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "clientId", CLIENT_ID);
+        ReflectionTestUtils.setField(tokenService, "tokenInfoUri", google.tokenInfoUri());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwksKeyCache.shutdown();
+        google.close();
+    }
+
+    @Test
+    void verifiesTokensLocallyWithCachedKeys() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertEquals("admin@example.com", tokenService.validateToken(google.mintToken("admin@example.com")));
+        }
+
+        assertEquals(1, google.jwksRequests());
+        assertEquals(0, google.tokenInfoRequests());
+    }
+
+    @Test
+    void returnsTokenExpiry() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        String token = google.mintToken("stub-key-1", "admin@example.com", CLIENT_ID, StubGoogleServer.ISSUER, expiresAt);
+
+        assertEquals(expiresAt.getEpochSecond(), tokenService.verifyToken(token).expiresAt().getEpochSecond());
+    }
+
+    @Test
+    void rejectsWrongAudience() {
+        String token = google.mintToken("stub-key-1", "admin@example.com", "other-client", StubGoogleServer.ISSUER,
+                Instant.now().plusSeconds(600));
+
+        assertThrows(RuntimeException.class, () -> tokenService.validateToken(token));
+    }
+
+    @Test
+    void rejectsWrongIssuer() {
+        String token = google.mintToken("stub-key-1", "admin@example.com", CLIENT_ID, "https://evil.example.com",
+                Instant.now().plusSeconds(600));
+
+        assertThrows(RuntimeException.class, () -> tokenService.validateToken(token));
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String token = google.mintToken("stub-key-1", "admin@example.com", CLIENT_ID, StubGoogleServer.ISSUER,
+                Instant.now().minusSeconds(3600));
+
+        assertThrows(RuntimeException.class, () -> tokenService.validateToken(token));
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String token = google.mintToken("admin@example.com");
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertThrows(RuntimeException.class, () -> tokenService.validateToken(tampered));
+        assertEquals(0, google.tokenInfoRequests());
+    }
+
+    @Test
+    void fallsBackToTokenInfoForUnknownKeyId() throws Exception {
+        google.addUnpublishedKey("rotated-key");
+        String token = google.mintToken("rotated-key", "admin@example.com", CLIENT_ID, StubGoogleServer.ISSUER,
+                Instant.now().plusSeconds(600));
+
+        assertEquals("admin@example.com", tokenService.validateToken(token));
+        assertEquals(1, google.tokenInfoRequests());
+    }
+}
@@ -0,0 +1,73 @@
+package com.harsh.fullstackbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenVerificationCacheTest {
+
+    private TokenService tokenService;
+    private TokenVerificationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = mock(TokenService.class);
+        cache = new TokenVerificationCache(tokenService, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void verifiesEachTokenOnce() throws Exception {
+        when(tokenService.verifyToken("token-a"))
+                .thenReturn(new TokenService.VerifiedToken("a@example.com", Instant.now().plusSeconds(600)));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("a@example.com", cache.verify("token-a").email());
+        }
+
+        verify(tokenService, times(1)).verifyToken("token-a");
+        assertEquals(4, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void expiredTokensAreNotServedFromCache() throws Exception {
+        when(tokenService.verifyToken("token-a"))
+                .thenReturn(new TokenService.VerifiedToken("a@example.com", Instant.now().minusSeconds(1)));
+
+        cache.verify("token-a");
+        cache.verify("token-a");
+
+        verify(tokenService, times(2)).verifyToken("token-a");
+    }
+
+    @Test
+    void invalidateDropsEntry() throws Exception {
+        when(tokenService.verifyToken("token-a"))
+                .thenReturn(new TokenService.VerifiedToken("a@example.com", Instant.now().plusSeconds(600)));
+
+        cache.verify("token-a");
+        cache.invalidate("token-a");
+        cache.verify("token-a");
+
+        verify(tokenService, times(2)).verifyToken("token-a");
+    }
+
+    @Test
+    void failedVerificationIsNotCached() throws Exception {
+        when(tokenService.verifyToken("bad")).thenThrow(new RuntimeException("Token signature invalid"));
+
+        assertThrows(RuntimeException.class, () -> cache.verify("bad"));
+        assertThrows(RuntimeException.class, () -> cache.verify("bad"));
+
+        verify(tokenService, times(2)).verifyToken("bad");
+        assertEquals(0, cache.estimatedSize());
+    }
+}
@@ -0,0 +1,97 @@
+package com.harsh.fullstackbackend.support;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the SQL statements a test sends to the database, so a service call can be held to a
+ * statement budget. Every test context's DataSource is wrapped in a datasource-proxy that reports
+ * here, which also catches JdbcTemplate statements that Hibernate statistics never see. Only the
+ * recording thread's statements are kept; catalog polling and derivative rendering run on other
+ * threads and are ignored.
+ */
+@Component
+public class SqlStatementRecorder implements BeanPostProcessor, QueryExecutionListener {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(this).build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    /**
+     * One entry per round trip: a JDBC batch is a single statement however many rows it carries.
+     */
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> statements = RECORDING.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo query : queryInfoList) {
+            statements.add(query.getQuery());
+        }
+    }
+
+    public static <T> Recorded<T> record(ThrowingSupplier<T> work) throws Throwable {
+        if (RECORDING.get() != null) {
+            throw new IllegalStateException("Already recording on this thread");
+        }
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            T result = work.get();
+            return new Recorded<>(result, List.copyOf(statements));
+        } finally {
+            RECORDING.remove();
+        }
+    }
+
+    public static Recorded<Void> record(Executable work) throws Throwable {
+        return record(() -> {
+            work.execute();
+            return null;
+        });
+    }
+
+    /**
+     * What a recorded call returned and the statements it issued, in order.
+     */
+    public record Recorded<T>(T result, List<String> statements) {
+
+        public int count() {
+            return statements.size();
+        }
+
+        /**
+         * Fails with the full statement list when the call went over its budget.
+         */
+        public Recorded<T> assertAtMost(int budget, String call) {
+            if (statements.size() > budget) {
+                fail("%s issued %d statements, budget is %d:%n  %s".formatted(call, statements.size(), budget,
+                        String.join(System.lineSeparator() + "  ", statements)));
+            }
+            return this;
+        }
+    }
+}
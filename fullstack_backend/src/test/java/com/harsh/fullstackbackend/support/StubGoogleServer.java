@@ -0,0 +1,268 @@
+package com.harsh.fullstackbackend.support;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for Google's OAuth endpoints: serves a JWKS key set, tokeninfo and the
+ * authorization code exchange, and mints RS256 ID tokens signed with its own keys.
+ */
+public class StubGoogleServer implements AutoCloseable {
+
+    public static final String ISSUER = "https://accounts.google.com";
+
+    private final HttpServer server;
+    private final Map<String, KeyPair> publishedKeys = new ConcurrentHashMap<>();
+    private final Map<String, KeyPair> unpublishedKeys = new ConcurrentHashMap<>();
+    private final Map<String, String> authCodes = new ConcurrentHashMap<>();
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private final AtomicInteger tokenInfoRequests = new AtomicInteger();
+    private final String clientId;
+    private volatile long jwksMaxAgeSeconds = 3600;
+    private volatile Duration tokenInfoLatency = Duration.ZERO;
+
+    public StubGoogleServer(String clientId) throws IOException {
+        this.clientId = clientId;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/oauth2/v3/certs", this::handleJwks);
+        server.createContext("/tokeninfo", this::handleTokenInfo);
+        server.createContext("/token", this::handleToken);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        publishKey("stub-key-1");
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String jwksUri() {
+        return baseUrl() + "/oauth2/v3/certs";
+    }
+
+    public String tokenInfoUri() {
+        return baseUrl() + "/tokeninfo";
+    }
+
+    public String tokenUri() {
+        return baseUrl() + "/token";
+    }
+
+    public int jwksRequests() {
+        return jwksRequests.get();
+    }
+
+    public int tokenInfoRequests() {
+        return tokenInfoRequests.get();
+    }
+
+    public void setJwksMaxAgeSeconds(long jwksMaxAgeSeconds) {
+        this.jwksMaxAgeSeconds = jwksMaxAgeSeconds;
+    }
+
+    /**
+     * Delay every tokeninfo response, to stand in for the real endpoint's network round trip.
+     */
+    public void setTokenInfoLatency(Duration tokenInfoLatency) {
+        this.tokenInfoLatency = tokenInfoLatency;
+    }
+
+    /**
+     * Add a key to the published JWKS.
+     */
+    public void publishKey(String kid) {
+        publishedKeys.put(kid, generateKeyPair());
+    }
+
+    /**
+     * Create a key that signs tokens but is not (yet) in the JWKS, as during key rotation.
+     */
+    public void addUnpublishedKey(String kid) {
+        unpublishedKeys.put(kid, generateKeyPair());
+    }
+
+    public String mintToken(String email) {
+        return mintToken("stub-key-1", email, clientId, ISSUER, Instant.now().plusSeconds(3600));
+    }
+
+    public String mintToken(String kid, String email, String audience, String issuer, Instant expiresAt) {
+        JsonObject header = new JsonObject();
+        header.addProperty("alg", "RS256");
+        header.addProperty("kid", kid);
+        header.addProperty("typ", "JWT");
+
+        JsonObject claims = new JsonObject();
+        claims.addProperty("iss", issuer);
+        claims.addProperty("aud", audience);
+        claims.addProperty("sub", Integer.toHexString(email.hashCode()));
+        claims.addProperty("email", email);
+        claims.addProperty("email_verified", true);
+        claims.addProperty("iat", Instant.now().getEpochSecond());
+        claims.addProperty("exp", expiresAt.getEpochSecond());
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signingInput = encoder.encodeToString(header.toString().getBytes(StandardCharsets.UTF_8)) + "." +
+                encoder.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8));
+        return signingInput + "." + encoder.encodeToString(sign(keyFor(kid).getPrivate(), signingInput));
+    }
+
+    /**
+     * Register an authorization code that the token endpoint will exchange for an ID token for the email.
+     */
+    public String issueAuthCode(String email) {
+        String code = "code-" + authCodes.size() + "-" + Integer.toHexString(email.hashCode());
+        authCodes.put(code, email);
+        return code;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handleJwks(HttpExchange exchange) throws IOException {
+        jwksRequests.incrementAndGet();
+        JsonArray keys = new JsonArray();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        publishedKeys.forEach((kid, keyPair) -> {
+            RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+            JsonObject jwk = new JsonObject();
+            jwk.addProperty("kty", "RSA");
+            jwk.addProperty("alg", "RS256");
+            jwk.addProperty("use", "sig");
+            jwk.addProperty("kid", kid);
+            jwk.addProperty("n", encoder.encodeToString(unsigned(publicKey.getModulus().toByteArray())));
+            jwk.addProperty("e", encoder.encodeToString(unsigned(publicKey.getPublicExponent().toByteArray())));
+            keys.add(jwk);
+        });
+        JsonObject body = new JsonObject();
+        body.add("keys", keys);
+        exchange.getResponseHeaders().add("Cache-Control", "public, max-age=" + jwksMaxAgeSeconds);
+        respond(exchange, 200, body.toString());
+    }
+
+    private void handleTokenInfo(HttpExchange exchange) throws IOException {
+        tokenInfoRequests.incrementAndGet();
+        if (!tokenInfoLatency.isZero()) {
+            try {
+                Thread.sleep(tokenInfoLatency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        String query = exchange.getRequestURI().getRawQuery();
+        String token = query == null ? "" : URLDecoder.decode(query.replaceFirst("^id_token=", ""), StandardCharsets.UTF_8);
+        String[] parts = token.split("\\.");
+        if (parts.length != 3 || !signatureValid(parts)) {
+            respond(exchange, 400, "{\"error\":\"invalid_token\"}");
+            return;
+        }
+        JsonObject claims = JsonParser.parseString(
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)).getAsJsonObject();
+        // tokeninfo reports numeric claims as strings
+        claims.addProperty("exp", claims.get("exp").getAsString());
+        respond(exchange, 200, claims.toString());
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String code = null;
+        for (String pair : form.split("&")) {
+            if (pair.startsWith("code=")) {
+                code = URLDecoder.decode(pair.substring("code=".length()), StandardCharsets.UTF_8);
+            }
+        }
+        String email = code == null ? null : authCodes.remove(code);
+        if (email == null) {
+            respond(exchange, 400, "{\"error\":\"invalid_grant\"}");
+            return;
+        }
+        JsonObject body = new JsonObject();
+        body.addProperty("id_token", mintToken(email));
+        body.addProperty("access_token", "stub-access-" + code);
+        body.addProperty("refresh_token", "stub-refresh-" + code);
+        body.addProperty("expires_in", 3600);
+        respond(exchange, 200, body.toString());
+    }
+
+    private boolean signatureValid(String[] parts) {
+        try {
+            JsonObject header = JsonParser.parseString(
+                    new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8)).getAsJsonObject();
+            KeyPair keyPair = keyFor(header.get("kid").getAsString());
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(keyPair.getPublic());
+            signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            return signature.verify(Base64.getUrlDecoder().decode(parts[2]));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private KeyPair keyFor(String kid) {
+        KeyPair keyPair = publishedKeys.containsKey(kid) ? publishedKeys.get(kid) : unpublishedKeys.get(kid);
+        if (keyPair == null) {
+            throw new IllegalArgumentException("Unknown key id " + kid);
+        }
+        return keyPair;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] sign(PrivateKey key, String signingInput) {
+        try {
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(key);
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signature.sign();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] unsigned(byte[] bytes) {
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return bytes;
+    }
+}